@@ -2,7 +2,6 @@ package com.example.expensetracker;
 
 import android.annotation.SuppressLint;
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -11,9 +10,6 @@ import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 public class AddTransactionActivity extends AppCompatActivity {
 
@@ -21,7 +17,7 @@ public class AddTransactionActivity extends AppCompatActivity {
     private RadioGroup rgCategoryType;
     private TextView tvDate;
     private Button btnSave;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
     private int userId;
 
     @SuppressLint({"MissingInflatedId", "SetTextI18n"})
@@ -39,8 +35,8 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views
         etCategoryName = findViewById(R.id.etCategoryName);
@@ -64,12 +60,9 @@ public class AddTransactionActivity extends AppCompatActivity {
         });
     }
 
-    @SuppressLint("SimpleDateFormat")
     private void setCurrentDate() {
-        // Get current date in format: "Tuesday, Dec 9, 2025"
-        SimpleDateFormat sdf = new SimpleDateFormat("EEEE, MMM d, yyyy", Locale.getDefault());
-        String currentDate = sdf.format(new Date());
-        tvDate.setText(currentDate);
+        // Today with weekday and month name, e.g. "Tuesday, December 9, 2025" in the US
+        tvDate.setText(Formatters.formatLongDate(EpochDays.today()));
     }
 
     private boolean validateInput() {
@@ -93,8 +86,8 @@ public class AddTransactionActivity extends AppCompatActivity {
 
         // Check if amount is valid number
         try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            long amountCents = Money.parseCents(amountStr);
+            if (amountCents <= 0) {
                 etAmount.setError("Amount must be greater than 0");
                 etAmount.requestFocus();
                 return false;
@@ -123,30 +116,32 @@ public class AddTransactionActivity extends AppCompatActivity {
         String categoryType = getSelectedCategoryType();
 
 
-        double amount = Double.parseDouble(amountStr);
-
-        // Get current date in database format (YYYY-MM-DD)
-        String dbDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
-
-        try {
-
-            int categoryId = getOrCreateCategory(categoryName, categoryType);
-
-
-            long result = databaseHelper.addTransaction(userId, categoryId, categoryType,
-                    description, amount, dbDate);
-
-            if (result != -1) {
-                Toast.makeText(this, "Transaction added successfully!", Toast.LENGTH_SHORT).show();
-                finish(); // Return to dashboard
-            } else {
-                Toast.makeText(this, "Failed to add transaction", Toast.LENGTH_SHORT).show();
-            }
-
-        } catch (Exception e) {
-            Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
-        }
+        long amountCents = Money.parseCents(amountStr);
+
+        // Transactions are dated today
+        int epochDay = EpochDays.today();
+
+        btnSave.setEnabled(false);
+        repository.addTransaction(userId, categoryName, categoryType, description, amountCents, epochDay,
+                new TransactionRepository.Callback<Long>() {
+                    @Override
+                    public void onResult(Long result) {
+                        btnSave.setEnabled(true);
+                        if (result != -1) {
+                            Toast.makeText(AddTransactionActivity.this, "Transaction added successfully!", Toast.LENGTH_SHORT).show();
+                            finish(); // Return to dashboard
+                        } else {
+                            Toast.makeText(AddTransactionActivity.this, "Failed to add transaction", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        btnSave.setEnabled(true);
+                        Toast.makeText(AddTransactionActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                        e.printStackTrace();
+                    }
+                });
     }
 
     private String getSelectedCategoryType() {
@@ -162,50 +157,4 @@ public class AddTransactionActivity extends AppCompatActivity {
             return radioText; // Fallback
         }
     }
-
-    private int getOrCreateCategory(String categoryName, String categoryType) {
-
-        Cursor cursor = databaseHelper.getAllCategories();
-
-        int categoryId = -1;
-
-
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                String existingName = cursor.getString(
-                        cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-                String existingType = cursor.getString(
-                        cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-
-                if (existingName.equalsIgnoreCase(categoryName) &&
-                        existingType.equalsIgnoreCase(categoryType)) {
-                    categoryId = cursor.getInt(
-                            cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_ID));
-                    break;
-                }
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-
-        if (categoryId == -1) {
-            long newCategoryId = databaseHelper.addCategory(categoryName, categoryType);
-
-            if (newCategoryId == -1) {
-                throw new RuntimeException("Failed to create category");
-            }
-
-            categoryId = (int) newCategoryId;
-        }
-
-        return categoryId;
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
-    }
 }
\ No newline at end of file
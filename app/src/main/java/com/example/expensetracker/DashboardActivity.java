@@ -2,7 +2,6 @@ package com.example.expensetracker;
 
 import android.annotation.SuppressLint;
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.view.Gravity;
 import android.widget.Button;
@@ -12,16 +11,17 @@ import android.widget.TableRow;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.util.List;
 
 public class DashboardActivity extends AppCompatActivity {
 
     private TextView tvIncome, tvExpense;
     private Button btnAdd, btnEditDelete, btnReports, btnAddNewTransaction;
     private TableLayout tableTransactions;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
     private int userId;
+    // Version of the user's transactions on screen; -1 until the first load
+    private long shownVersion = -1;
 
     @SuppressLint("SetTextI18n")
     @Override
@@ -33,8 +33,8 @@ public class DashboardActivity extends AppCompatActivity {
         Intent intent = getIntent();
         userId = intent.getIntExtra("USER_ID", -1);
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views
         tvIncome = findViewById(R.id.tvIncome);
@@ -45,10 +45,12 @@ public class DashboardActivity extends AppCompatActivity {
         btnAddNewTransaction = findViewById(R.id.btnAddNewTransaction);
         tableTransactions = findViewById(R.id.tableTransactions);
 
-        // Load data from database
-        loadDashboardData();
-        loadLatestTransactions();
-
+        // Data is loaded in onResume. Startup counts as fully drawn once both
+        // the totals and the latest transactions are on screen
+        if (userId != -1) {
+            getFullyDrawnReporter().addReporter();
+            getFullyDrawnReporter().addReporter();
+        }
 
         btnAdd.setOnClickListener(v -> {
             Intent addIntent = new Intent(this, AddTransactionActivity.class);
@@ -79,37 +81,39 @@ public class DashboardActivity extends AppCompatActivity {
         if (userId == -1) return;
 
         // Get totals from database
-        double totalIncome = databaseHelper.getTotalIncomeLast30Days(userId);
-        double totalExpense = databaseHelper.getTotalExpenseLast30Days(userId);
-
-        // Format currency
-        NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-
-        // Update UI
-        tvIncome.setText(currencyFormat.format(totalIncome));
-        tvExpense.setText(currencyFormat.format(totalExpense));
+        repository.getSummary(userId, DatabaseHelper.SUMMARY_WINDOW_DAYS, summary -> {
+            // Update UI, in the device's number format
+            tvIncome.setText(Formatters.formatAmount(summary.getWindowIncomeCents()));
+            tvExpense.setText(Formatters.formatAmount(summary.getWindowExpenseCents()));
+            getFullyDrawnReporter().removeReporter();
+        });
     }
 
     private void loadLatestTransactions() {
         if (userId == -1) return;
 
+        // Get latest transactions from database
+        repository.getLatestTransactions(userId, 3, transactions -> {
+            showLatestTransactions(transactions);
+            getFullyDrawnReporter().removeReporter();
+        });
+    }
+
+    private void showLatestTransactions(List<Transaction> transactions) {
         // Clear existing table rows (keep header)
         int childCount = tableTransactions.getChildCount();
         if (childCount > 1) { // Keep header row (index 0)
             tableTransactions.removeViews(1, childCount - 1);
         }
 
-        // Get latest transactions from database
-        Cursor cursor = databaseHelper.getLatestTransactions(userId, 3);
-
         // Create table rows for each transaction
         int rowColor = 0;
-        while (cursor.moveToNext()) {
-            String type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-            String categoryName = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-            String description = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION));
-            String date = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE));
-            double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT));
+        for (Transaction transaction : transactions) {
+            String type = transaction.getType();
+            String categoryName = transaction.getCategoryName();
+            String description = transaction.getDescription();
+            int epochDay = transaction.getEpochDay();
+            long amountCents = transaction.getAmountCents();
 
             // Create table row
             TableRow row = new TableRow(this);
@@ -128,15 +132,15 @@ public class DashboardActivity extends AppCompatActivity {
             // Add cells to row
             row.addView(createTableCell(type));
             row.addView(createTableCell(categoryName));
-            row.addView(createTableCell(description.length() > 10 ? description.substring(0, 10) + "..." : description));
-            row.addView(createTableCell(formatDate(date)));
-            row.addView(createTableCell("$" + String.format(Locale.US, "%.2f", amount)));
+            // Description is optional, so it may be null
+            row.addView(createTableCell(description != null && description.length() > 10
+                    ? description.substring(0, 10) + "..." : description));
+            row.addView(createTableCell(EpochDays.toDisplay(epochDay)));
+            row.addView(createTableCell(Formatters.formatAmount(amountCents)));
 
             // Add row to table
             tableTransactions.addView(row);
         }
-
-        cursor.close();
     }
 
     private TextView createTableCell(String text) {
@@ -153,34 +157,17 @@ public class DashboardActivity extends AppCompatActivity {
         return textView;
     }
 
-    private String formatDate(String date) {
-        // Format date from database (assuming format: YYYY-MM-DD)
-        try {
-            String[] parts = date.split("-");
-            if (parts.length == 3) {
-                return parts[1] + "/" + parts[2] + "/" + parts[0].substring(2); // MM/DD/YY
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return date;
-    }
-
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh data when returning to dashboard
+        // Refresh data when returning to dashboard, unless no transaction changed meanwhile
         if (userId != -1) {
-            loadDashboardData();
-            loadLatestTransactions();
-        }
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
+            long version = repository.getInvalidationTracker().getVersion(userId);
+            if (version != shownVersion) {
+                shownVersion = version;
+                loadDashboardData();
+                loadLatestTransactions();
+            }
         }
     }
 }
\ No newline at end of file
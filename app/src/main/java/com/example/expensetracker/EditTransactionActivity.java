@@ -1,7 +1,6 @@
 package com.example.expensetracker;
 
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -9,16 +8,13 @@ import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 public class EditTransactionActivity extends AppCompatActivity {
 
     private EditText etCategoryName, etDescription, etAmount;
     private RadioGroup rgCategoryType;
     private Button btnSave;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
     private int userId;
     private int transactionId;
 
@@ -38,8 +34,8 @@ public class EditTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views
         etCategoryName = findViewById(R.id.etCategoryName);
@@ -60,19 +56,20 @@ public class EditTransactionActivity extends AppCompatActivity {
     }
 
     private void loadTransactionData() {
+        repository.getTransactionById(transactionId, this::showTransactionData);
+    }
 
-        Cursor cursor = databaseHelper.getTransactionById(transactionId);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            String type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-            String categoryName = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-            String description = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION));
-            double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT));
+    private void showTransactionData(Transaction transaction) {
+        if (transaction != null) {
+            String type = transaction.getType();
+            String categoryName = transaction.getCategoryName();
+            String description = transaction.getDescription();
+            long amountCents = transaction.getAmountCents();
 
             // Populate fields
             etCategoryName.setText(categoryName);
             etDescription.setText(description);
-            etAmount.setText(String.valueOf(amount));
+            etAmount.setText(Money.format(amountCents));
 
             // Select radio button
             RadioButton rbExpense = findViewById(R.id.rbExpense);
@@ -86,10 +83,6 @@ public class EditTransactionActivity extends AppCompatActivity {
             Toast.makeText(this, "Transaction not found", Toast.LENGTH_SHORT).show();
             finish();
         }
-
-        if (cursor != null) {
-            cursor.close();
-        }
     }
 
     private boolean validateInput() {
@@ -113,8 +106,8 @@ public class EditTransactionActivity extends AppCompatActivity {
 
         // Check if amount is valid number
         try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            long amountCents = Money.parseCents(amountStr);
+            if (amountCents <= 0) {
                 etAmount.setError("Amount must be greater than 0");
                 etAmount.requestFocus();
                 return false;
@@ -139,21 +132,30 @@ public class EditTransactionActivity extends AppCompatActivity {
         String description = etDescription.getText().toString().trim();
         String amountStr = etAmount.getText().toString().trim();
         String categoryType = getSelectedCategoryType();
-        double amount = Double.parseDouble(amountStr);
-
-        // Get category ID
-        int categoryId = getOrCreateCategory(categoryName, categoryType);
-
-        // Update transaction
-        int rowsUpdated = databaseHelper.updateTransaction(transactionId, categoryId,
-                categoryType, description, amount, getCurrentDate());
-
-        if (rowsUpdated > 0) {
-            Toast.makeText(this, "Transaction updated successfully!", Toast.LENGTH_SHORT).show();
-            finish();
-        } else {
-            Toast.makeText(this, "Failed to update transaction", Toast.LENGTH_SHORT).show();
-        }
+        long amountCents = Money.parseCents(amountStr);
+
+        // Update transaction (category is looked up or created on the worker thread)
+        btnSave.setEnabled(false);
+        repository.updateTransaction(transactionId, categoryName, categoryType, description, amountCents,
+                EpochDays.today(), new TransactionRepository.Callback<Integer>() {
+                    @Override
+                    public void onResult(Integer rowsUpdated) {
+                        btnSave.setEnabled(true);
+                        if (rowsUpdated > 0) {
+                            Toast.makeText(EditTransactionActivity.this, "Transaction updated successfully!", Toast.LENGTH_SHORT).show();
+                            finish();
+                        } else {
+                            Toast.makeText(EditTransactionActivity.this, "Failed to update transaction", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        btnSave.setEnabled(true);
+                        Toast.makeText(EditTransactionActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                        e.printStackTrace();
+                    }
+                });
     }
 
     private String getSelectedCategoryType() {
@@ -169,54 +171,4 @@ public class EditTransactionActivity extends AppCompatActivity {
             return radioText; // Fallback
         }
     }
-
-    private String getCurrentDate() {
-        return new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
-    }
-
-    private int getOrCreateCategory(String categoryName, String categoryType) {
-        // First, check if category already exists
-        Cursor cursor = databaseHelper.getAllCategories();
-
-        int categoryId = -1;
-
-        // Check each category to find match
-        if (cursor != null && cursor.moveToFirst()) {
-            do {
-                String existingName = cursor.getString(
-                        cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-                String existingType = cursor.getString(
-                        cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-
-                if (existingName.equalsIgnoreCase(categoryName) &&
-                        existingType.equalsIgnoreCase(categoryType)) {
-                    categoryId = cursor.getInt(
-                            cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_ID));
-                    break;
-                }
-            } while (cursor.moveToNext());
-            cursor.close();
-        }
-
-        // If category not found, create it
-        if (categoryId == -1) {
-            long newCategoryId = databaseHelper.addCategory(categoryName, categoryType);
-
-            if (newCategoryId == -1) {
-                throw new RuntimeException("Failed to create category");
-            }
-
-            categoryId = (int) newCategoryId;
-        }
-
-        return categoryId;
-    }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
-    }
 }
\ No newline at end of file
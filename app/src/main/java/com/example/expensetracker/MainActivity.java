@@ -13,15 +13,15 @@ public class MainActivity extends AppCompatActivity {
     private EditText editTextEmail, editTextPassword;
     private Button buttonLogin;
     private TextView textViewSignUp;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views using your existing XML IDs
         editTextEmail = findViewById(R.id.editTextEmail);
@@ -49,23 +49,22 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        // Check credentials in database
-        if (databaseHelper.loginUser(username, password)) {
-            // Login successful
-            int userId = databaseHelper.getUserId(username);
-            String fullName = databaseHelper.getUserFullName(username);
+        // Check credentials in database (off the main thread)
+        repository.login(username, password, user -> {
+            if (user != null) {
+                // Login successful
+                Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
 
-            Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
-
-            Intent intent = new Intent(MainActivity.this, DashboardActivity.class);
-            intent.putExtra("USER_ID", userId);
-            intent.putExtra("USERNAME", username);
-            intent.putExtra("FULL_NAME", fullName);
-            startActivity(intent);
-            finish();
-        } else {
-            Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
-        }
+                Intent intent = new Intent(MainActivity.this, DashboardActivity.class);
+                intent.putExtra("USER_ID", user.getId());
+                intent.putExtra("USERNAME", user.getUsername());
+                intent.putExtra("FULL_NAME", user.getFullName());
+                startActivity(intent);
+                finish();
+            } else {
+                Toast.makeText(this, "Invalid username or password", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void goToSignUp() {
@@ -73,13 +72,4 @@ public class MainActivity extends AppCompatActivity {
         startActivity(intent);
         finish();
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Close database connection
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
-    }
 }
\ No newline at end of file
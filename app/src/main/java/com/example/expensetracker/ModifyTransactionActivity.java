@@ -2,31 +2,50 @@ package com.example.expensetracker;
 
 import android.annotation.SuppressLint;
 import android.content.Intent;
-import android.database.Cursor;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
-import android.view.Gravity;
-import android.view.View;
 import android.widget.Button;
-import android.widget.TableLayout;
-import android.widget.TableRow;
+import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.content.ContextCompat;
-import java.text.NumberFormat;
+import androidx.recyclerview.widget.RecyclerView;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 public class ModifyTransactionActivity extends AppCompatActivity {
 
-    private Button btnDelete, btnEdit, btnSave;
-    private TableLayout tableTransactions;
-    private DatabaseHelper databaseHelper;
+    // Matches shown for a search; the user narrows the query rather than scrolling further
+    private static final int SEARCH_LIMIT = 100;
+    // Wait for a pause in typing before querying
+    private static final long SEARCH_DELAY_MS = 250;
+
+    private Button btnDelete, btnEdit, btnSave, btnFilter, btnRecategorize, btnSelectAll;
+    private TextView tvListTitle;
+    private EditText etSearch;
+    private RecyclerView recyclerTransactions;
+    private TransactionRepository repository;
+    private TransactionAdapter adapter;
+    private TransactionAdapter searchAdapter;
+    private TransactionPageLoader pageLoader;
     private int userId;
-    private int selectedTransactionId = -1;
-    private List<Integer> transactionIds = new ArrayList<>();
+    // Selected rows by id, in the order they were tapped
+    private final Map<Integer, Transaction> selectedTransactions = new LinkedHashMap<>();
+    // Set by SELECT ALL on the paged list: every row matching the filter, loaded or not
+    private boolean allMatchingSelected;
+
+    // Empty while the paged history is shown
+    private String searchQuery = "";
+    // Bumped per search so results of an older query are dropped
+    private int searchGeneration;
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable searchRunnable = this::runSearch;
 
     @SuppressLint("SetTextI18n")
     @Override
@@ -44,29 +63,71 @@ public class ModifyTransactionActivity extends AppCompatActivity {
                 return;
             }
 
-            // Initialize database helper
-            databaseHelper = new DatabaseHelper(this);
+            // Shared, application-scoped database
+            repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
             // Initialize views with null checks
             btnDelete = findViewById(R.id.btnDelete);
             btnEdit = findViewById(R.id.btnEdit);
             btnSave = findViewById(R.id.btnSave);
-            tableTransactions = findViewById(R.id.tableTransactions);
+            btnFilter = findViewById(R.id.btnFilter);
+            btnRecategorize = findViewById(R.id.btnRecategorize);
+            btnSelectAll = findViewById(R.id.btnSelectAll);
+            tvListTitle = findViewById(R.id.tvListTitle);
+            etSearch = findViewById(R.id.etSearch);
+            recyclerTransactions = findViewById(R.id.recyclerTransactions);
 
             // Check if views were found
             if (btnDelete == null) Log.e("ModifyActivity", "btnDelete is null!");
             if (btnEdit == null) Log.e("ModifyActivity", "btnEdit is null!");
             if (btnSave == null) Log.e("ModifyActivity", "btnSave is null!");
-            if (tableTransactions == null) Log.e("ModifyActivity", "tableTransactions is null!");
+            if (btnFilter == null) Log.e("ModifyActivity", "btnFilter is null!");
+            if (btnRecategorize == null) Log.e("ModifyActivity", "btnRecategorize is null!");
+            if (btnSelectAll == null) Log.e("ModifyActivity", "btnSelectAll is null!");
+            if (etSearch == null) Log.e("ModifyActivity", "etSearch is null!");
+            if (recyclerTransactions == null) Log.e("ModifyActivity", "recyclerTransactions is null!");
+
+            // Transactions are paged in from the database as the list scrolls
+            adapter = new TransactionAdapter(this);
+            adapter.setOnTransactionClickListener(this::toggleSelection);
+            // Search results get their own adapter so the paged list keeps its rows meanwhile
+            searchAdapter = new TransactionAdapter(this);
+            searchAdapter.setOnTransactionClickListener(this::toggleSelection);
+            pageLoader = new TransactionPageLoader(repository, adapter, userId);
+            pageLoader.setListener((firstPage, loadedCount) -> {
+                if (firstPage && loadedCount == 0) {
+                    Toast.makeText(this, "No transactions to display", Toast.LENGTH_SHORT).show();
+                }
+            });
+            if (recyclerTransactions != null) {
+                pageLoader.attach(recyclerTransactions);
+            }
+            // Edits and deletes made from here or the edit screen patch just their rows
+            pageLoader.watch(repository.getInvalidationTracker());
+
+            if (etSearch != null) {
+                etSearch.addTextChangedListener(new TextWatcher() {
+                    @Override
+                    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                    }
+
+                    @Override
+                    public void onTextChanged(CharSequence s, int start, int before, int count) {
+                    }
 
-            // Load transactions from database
-            loadAllTransactions();
+                    @Override
+                    public void afterTextChanged(Editable s) {
+                        searchHandler.removeCallbacks(searchRunnable);
+                        searchHandler.postDelayed(searchRunnable, SEARCH_DELAY_MS);
+                    }
+                });
+            }
 
             // Set button listeners with null checks
             if (btnDelete != null) {
                 btnDelete.setOnClickListener(v -> {
-                    if (selectedTransactionId != -1) {
-                        deleteSelectedTransaction();
+                    if (hasSelection()) {
+                        deleteSelectedTransactions();
                     } else {
                         Toast.makeText(this, "Please select a transaction first", Toast.LENGTH_SHORT).show();
                     }
@@ -75,14 +136,41 @@ public class ModifyTransactionActivity extends AppCompatActivity {
 
             if (btnEdit != null) {
                 btnEdit.setOnClickListener(v -> {
-                    if (selectedTransactionId != -1) {
+                    if (selectedTransactions.size() == 1) {
                         editSelectedTransaction();
+                    } else if (!hasSelection()) {
+                        Toast.makeText(this, "Please select a transaction first", Toast.LENGTH_SHORT).show();
+                    } else {
+                        Toast.makeText(this, "Select a single transaction to edit", Toast.LENGTH_SHORT).show();
+                    }
+                });
+            }
+
+            if (btnRecategorize != null) {
+                btnRecategorize.setOnClickListener(v -> {
+                    if (hasSelection()) {
+                        recategorizeSelectedTransactions();
                     } else {
                         Toast.makeText(this, "Please select a transaction first", Toast.LENGTH_SHORT).show();
                     }
                 });
             }
 
+            if (btnSelectAll != null) {
+                btnSelectAll.setOnClickListener(v -> {
+                    if (searchQuery.isEmpty()) {
+                        selectAllMatching();
+                    } else {
+                        selectAllShown();
+                    }
+                });
+            }
+
+            if (btnFilter != null) {
+                btnFilter.setOnClickListener(v -> TransactionFilterDialog.show(this, repository,
+                        pageLoader.getFilter(), this::applyFilter));
+            }
+
             if (btnSave != null) {
                 btnSave.setOnClickListener(v -> {
                     Toast.makeText(this, "Returning to dashboard", Toast.LENGTH_SHORT).show();
@@ -97,196 +185,263 @@ public class ModifyTransactionActivity extends AppCompatActivity {
         }
     }
 
-    private void loadAllTransactions() {
-        try {
-            if (userId == -1) return;
-
-            // Clear existing table rows (keep header)
-            if (tableTransactions != null) {
-                int childCount = tableTransactions.getChildCount();
-                if (childCount > 1) { // Keep header row (index 0)
-                    tableTransactions.removeViews(1, childCount - 1);
-                }
-            }
-
-            // Clear transaction IDs list
-            transactionIds.clear();
-
-            // Get all transactions from database
-            Cursor cursor = databaseHelper.getAllTransactions(userId);
+    // A tap adds the row to the selection, or takes it out again
+    private void toggleSelection(Transaction transaction) {
+        if (allMatchingSelected) {
+            // Narrow "all matching" down to the loaded rows, then toggle the tapped one
+            allMatchingSelected = false;
+            adapter.setAllSelected(false);
+            selectAllShown();
+        }
+        int transactionId = transaction.getId();
+        boolean selected = selectedTransactions.remove(transactionId) == null;
+        if (selected) {
+            selectedTransactions.put(transactionId, transaction);
+        }
+        currentAdapter().setSelected(transactionId, selected);
+        showSelectionCount();
+    }
 
-            if (cursor == null) {
-                Toast.makeText(this, "No transactions found", Toast.LENGTH_SHORT).show();
-                return;
-            }
+    // Selects every row matching the filter, including pages not loaded yet; edits then go by the filter
+    private void selectAllMatching() {
+        clearSelection();
+        allMatchingSelected = true;
+        adapter.setAllSelected(true);
+        showSelectionCount();
+    }
 
-            // Create table rows for each transaction
-            int rowColor = 0;
-            while (cursor.moveToNext()) {
-                int transactionId = cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TRANSACTION_ID));
-                String type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-                String categoryName = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-                String description = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE));
-                double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT));
-
-                // Store transaction ID
-                transactionIds.add(transactionId);
-
-                // Create table row
-                TableRow row = new TableRow(this);
-                row.setLayoutParams(new TableRow.LayoutParams(
-                        TableRow.LayoutParams.MATCH_PARENT,
-                        TableRow.LayoutParams.WRAP_CONTENT
-                ));
-                row.setTag(transactionId); // Use tag to store transaction ID
-
-                // Set alternating row colors
-                int backgroundColor;
-                try {
-                    backgroundColor = (rowColor % 2 == 0)
-                            ? ContextCompat.getColor(this, android.R.color.white)
-                            : ContextCompat.getColor(this, R.color.light_gray);
-                } catch (Exception e) {
-                    backgroundColor = (rowColor % 2 == 0) ? 0xFFFFFFFF : 0xFFF8F8F8;
-                }
-                row.setBackgroundColor(backgroundColor);
-                rowColor++;
-
-                // Add cells to row
-                row.addView(createTableCell(type));
-                row.addView(createTableCell(categoryName));
-                row.addView(createTableCell(description.length() > 10 ? description.substring(0, 10) + "..." : description));
-                row.addView(createTableCell(formatDate(date)));
-                row.addView(createTableCell("$" + String.format(Locale.US, "%.2f", amount)));
-
-                // Set click listener for row selection
-                final int currentTransactionId = transactionId;
-                row.setOnClickListener(v -> {
-                    // Reset all rows to default colors
-                    resetRowColors();
-
-                    // Highlight selected row
-                    try {
-                        row.setBackgroundColor(ContextCompat.getColor(ModifyTransactionActivity.this, R.color.selected_color));
-                    } catch (Exception e) {
-                        row.setBackgroundColor(0xFFE3F2FD); // Light blue
-                    }
-                    selectedTransactionId = currentTransactionId;
+    // Selects every row loaded so far, such as all search results
+    private void selectAllShown() {
+        TransactionAdapter shown = currentAdapter();
+        for (Transaction transaction : shown.getTransactions()) {
+            selectedTransactions.put(transaction.getId(), transaction);
+        }
+        shown.selectAll();
+        showSelectionCount();
+    }
 
-                    Toast.makeText(ModifyTransactionActivity.this,
-                            "Selected: " + categoryName,
-                            Toast.LENGTH_SHORT).show();
-                });
+    private void showSelectionCount() {
+        int count = selectedTransactions.size();
+        String suffix = allMatchingSelected ? " (ALL)" : count > 1 ? " (" + count + ")" : "";
+        if (btnDelete != null) btnDelete.setText("DELETE" + suffix);
+        if (btnRecategorize != null) btnRecategorize.setText("CATEGORY" + suffix);
+    }
 
-                // Add row to table
-                if (tableTransactions != null) {
-                    tableTransactions.addView(row);
-                }
-            }
+    private boolean hasSelection() {
+        return allMatchingSelected || !selectedTransactions.isEmpty();
+    }
 
-            cursor.close();
+    private int[] selectedIds() {
+        int[] ids = new int[selectedTransactions.size()];
+        int i = 0;
+        for (int transactionId : selectedTransactions.keySet()) {
+            ids[i++] = transactionId;
+        }
+        return ids;
+    }
 
-            if (transactionIds.isEmpty()) {
-                Toast.makeText(this, "No transactions to display", Toast.LENGTH_SHORT).show();
-            }
+    private void applyFilter(TransactionFilter filter) {
+        clearSelection();
+        pageLoader.setFilter(filter);
+        boolean filtered = !filter.isUnfiltered();
+        if (tvListTitle != null) tvListTitle.setText(filtered ? "Transactions (Filtered)" : "Transactions");
+        btnFilter.setText(filtered ? "FILTER (ON)" : "FILTER");
+    }
 
-        } catch (Exception e) {
-            Log.e("ModifyActivity", "Error loading transactions: " + e.getMessage(), e);
-            Toast.makeText(this, "Error loading transactions", Toast.LENGTH_SHORT).show();
-        }
+    private TransactionAdapter currentAdapter() {
+        return searchQuery.isEmpty() ? adapter : searchAdapter;
     }
 
-    private TextView createTableCell(String text) {
-        TextView textView = new TextView(this);
-        textView.setText(text);
-        textView.setPadding(16, 12, 16, 12);
-        textView.setTextSize(12);
-        textView.setGravity(Gravity.CENTER);
-        textView.setLayoutParams(new TableRow.LayoutParams(
-                0,
-                TableRow.LayoutParams.WRAP_CONTENT,
-                1f
-        ));
-        return textView;
+    private void clearSelection() {
+        allMatchingSelected = false;
+        selectedTransactions.clear();
+        adapter.clearSelection();
+        searchAdapter.clearSelection();
+        showSelectionCount();
     }
 
-    private String formatDate(String date) {
-        try {
-            String[] parts = date.split("-");
-            if (parts.length == 3) {
-                return parts[1] + "/" + parts[2] + "/" + parts[0].substring(2); // MM/DD/YY
+    // Shows the matches for the search box, or the paged history again once it is cleared
+    private void runSearch() {
+        if (etSearch == null || recyclerTransactions == null) return;
+
+        String query = etSearch.getText().toString().trim();
+        boolean wasSearching = !searchQuery.isEmpty();
+        searchQuery = query;
+        int requestGeneration = ++searchGeneration;
+        clearSelection();
+
+        if (query.isEmpty()) {
+            if (wasSearching) {
+                recyclerTransactions.setAdapter(adapter);
+                recyclerTransactions.addOnScrollListener(pageLoader);
             }
-        } catch (Exception e) {
-            Log.e("ModifyActivity", "Error formatting date: " + date, e);
+            return;
+        }
+        if (!wasSearching) {
+            // Scrolling the results must not page more history into the hidden list
+            recyclerTransactions.removeOnScrollListener(pageLoader);
+            recyclerTransactions.setAdapter(searchAdapter);
         }
-        return date;
-    }
 
-    private void resetRowColors() {
-        try {
-            if (tableTransactions == null) return;
-
-            int childCount = tableTransactions.getChildCount();
-            for (int i = 1; i < childCount; i++) { // Start from 1 to skip header
-                View child = tableTransactions.getChildAt(i);
-                if (child instanceof TableRow) {
-                    TableRow row = (TableRow) child;
-                    int backgroundColor;
-                    try {
-                        backgroundColor = ((i - 1) % 2 == 0) // Adjust for header offset
-                                ? ContextCompat.getColor(this, android.R.color.white)
-                                : ContextCompat.getColor(this, R.color.light_gray);
-                    } catch (Exception e) {
-                        backgroundColor = ((i - 1) % 2 == 0) ? 0xFFFFFFFF : 0xFFF8F8F8;
-                    }
-                    row.setBackgroundColor(backgroundColor);
-                }
+        repository.searchTransactions(userId, query, SEARCH_LIMIT, new TransactionRepository.Callback<List<Transaction>>() {
+            @Override
+            public void onResult(List<Transaction> results) {
+                if (requestGeneration != searchGeneration) return;
+                searchAdapter.setTransactions(results);
             }
-        } catch (Exception e) {
-            Log.e("ModifyActivity", "Error resetting row colors: " + e.getMessage(), e);
-        }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e("ModifyActivity", "Search failed: " + e.getMessage(), e);
+                Toast.makeText(ModifyTransactionActivity.this, "Search failed", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
-    private void deleteSelectedTransaction() {
+    private void deleteSelectedTransactions() {
         try {
-            if (selectedTransactionId == -1) {
+            if (!hasSelection()) {
                 Toast.makeText(this, "Please select a transaction first", Toast.LENGTH_SHORT).show();
                 return;
             }
+            if (allMatchingSelected) {
+                deleteAllMatching();
+                return;
+            }
 
+            int count = selectedTransactions.size();
             // Show confirmation dialog
             android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(this);
-            builder.setTitle("Delete Transaction");
-            builder.setMessage("Are you sure you want to delete this transaction?");
+            builder.setTitle(count == 1 ? "Delete Transaction" : "Delete Transactions");
+            builder.setMessage(count == 1 ? "Are you sure you want to delete this transaction?"
+                    : "Are you sure you want to delete these " + count + " transactions?");
             builder.setPositiveButton("Delete", (dialog, which) -> {
-                // Delete transaction from database
-                int rowsDeleted = databaseHelper.deleteTransaction(selectedTransactionId);
-
-                if (rowsDeleted > 0) {
-                    Toast.makeText(this, "Transaction deleted successfully!", Toast.LENGTH_SHORT).show();
-
-                    // Clear selection
-                    selectedTransactionId = -1;
-
-                    // Refresh the table
-                    loadAllTransactions();
-                } else {
-                    Toast.makeText(this, "Failed to delete transaction", Toast.LENGTH_SHORT).show();
-                }
+                List<Integer> transactionIds = new ArrayList<>(selectedTransactions.keySet());
+                // One statement per few hundred rows, all in a single database transaction
+                repository.deleteTransactions(userId, selectedIds(), rowsDeleted -> {
+                    if (rowsDeleted > 0) {
+                        Toast.makeText(this, rowsDeleted == 1 ? "Transaction deleted successfully!"
+                                : rowsDeleted + " transactions deleted", Toast.LENGTH_SHORT).show();
+
+                        // Clear selection
+                        clearSelection();
+
+                        // Drop just the deleted rows from the table and the search results
+                        searchAdapter.removeTransactions(transactionIds);
+                        pageLoader.removeRows(transactionIds);
+                    } else {
+                        Toast.makeText(this, "Failed to delete transaction", Toast.LENGTH_SHORT).show();
+                    }
+                });
             });
             builder.setNegativeButton("Cancel", null);
             builder.show();
 
         } catch (Exception e) {
-            Log.e("ModifyActivity", "Error deleting transaction: " + e.getMessage(), e);
-            Toast.makeText(this, "Error deleting transaction", Toast.LENGTH_SHORT).show();
+            Log.e("ModifyActivity", "Error deleting transactions: " + e.getMessage(), e);
+            Toast.makeText(this, "Error deleting transactions", Toast.LENGTH_SHORT).show();
         }
     }
 
+    // Deletes every row matching the filter, paged in or not, in one statement
+    private void deleteAllMatching() {
+        TransactionFilter filter = pageLoader.getFilter();
+        android.app.AlertDialog.Builder builder = new android.app.AlertDialog.Builder(this);
+        builder.setTitle("Delete Transactions");
+        builder.setMessage(filter.isUnfiltered() ? "Are you sure you want to delete all of your transactions?"
+                : "Are you sure you want to delete every transaction that matches the filter?");
+        builder.setPositiveButton("Delete", (dialog, which) ->
+                repository.deleteTransactions(filter, rowsDeleted -> {
+                    Toast.makeText(this, rowsDeleted == 1 ? "Transaction deleted successfully!"
+                            : rowsDeleted + " transactions deleted", Toast.LENGTH_SHORT).show();
+                    clearSelection();
+                    // Rows that were never loaded are gone too, so start the list again
+                    pageLoader.reload();
+                }));
+        builder.setNegativeButton("Cancel", null);
+        builder.show();
+    }
+
+    // Moves every selected row to one category of their type
+    private void recategorizeSelectedTransactions() {
+        String type = null;
+        if (allMatchingSelected) {
+            type = pageLoader.getFilter().getType();
+            if (type == null) {
+                Toast.makeText(this, "Filter by income or expense to move every matching transaction",
+                        Toast.LENGTH_SHORT).show();
+                return;
+            }
+        }
+        for (Transaction transaction : selectedTransactions.values()) {
+            if (type != null && !type.equals(transaction.getType())) {
+                Toast.makeText(this, "Select only income or only expense transactions", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            type = transaction.getType();
+        }
+        String selectedType = type;
+
+        repository.getCategories(new TransactionRepository.Callback<List<Category>>() {
+            @Override
+            public void onResult(List<Category> categories) {
+                List<Category> choices = new ArrayList<>();
+                for (Category category : categories) {
+                    if (category.getType().equals(selectedType)) {
+                        choices.add(category);
+                    }
+                }
+                String[] names = new String[choices.size()];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = choices.get(i).getName();
+                }
+
+                new android.app.AlertDialog.Builder(ModifyTransactionActivity.this)
+                        .setTitle("Move to Category")
+                        .setItems(names, (dialog, which) -> recategorizeSelectedTransactions(choices.get(which)))
+                        .setNegativeButton("Cancel", null)
+                        .show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e("ModifyActivity", "Error loading categories: " + e.getMessage(), e);
+                Toast.makeText(ModifyTransactionActivity.this, "Could not load categories", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void recategorizeSelectedTransactions(Category category) {
+        if (allMatchingSelected) {
+            repository.recategorizeTransactions(pageLoader.getFilter(), category.getId(), rowsMoved -> {
+                Toast.makeText(this, rowsMoved + (rowsMoved == 1 ? " transaction" : " transactions") +
+                        " moved to " + category.getName(), Toast.LENGTH_SHORT).show();
+                clearSelection();
+                pageLoader.reload();
+            });
+            return;
+        }
+        List<Integer> transactionIds = new ArrayList<>(selectedTransactions.keySet());
+        repository.recategorizeTransactions(userId, selectedIds(), category.getId(), rowsMoved -> {
+            if (rowsMoved > 0) {
+                Toast.makeText(this, rowsMoved + (rowsMoved == 1 ? " transaction" : " transactions") +
+                        " moved to " + category.getName(), Toast.LENGTH_SHORT).show();
+                clearSelection();
+
+                // Patch the moved rows in place; a search may no longer match them, so it runs again
+                pageLoader.recategorizeRows(transactionIds, category);
+                if (!searchQuery.isEmpty()) {
+                    runSearch();
+                }
+            } else {
+                Toast.makeText(this, "Failed to change category", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
     private void editSelectedTransaction() {
         try {
-            if (selectedTransactionId == -1) {
+            if (selectedTransactions.size() != 1) {
                 Toast.makeText(this, "Please select a transaction first", Toast.LENGTH_SHORT).show();
                 return;
             }
@@ -294,7 +449,7 @@ public class ModifyTransactionActivity extends AppCompatActivity {
             // Start EditTransactionActivity with selected transaction ID
             Intent editIntent = new Intent(this, EditTransactionActivity.class);
             editIntent.putExtra("USER_ID", userId);
-            editIntent.putExtra("TRANSACTION_ID", selectedTransactionId);
+            editIntent.putExtra("TRANSACTION_ID", selectedTransactions.keySet().iterator().next());
             startActivity(editIntent);
 
         } catch (Exception e) {
@@ -306,18 +461,21 @@ public class ModifyTransactionActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // Refresh data when returning to this activity
+        // Refresh data when returning to this activity; only changed rows are fetched again
         if (userId != -1) {
-            loadAllTransactions();
-            selectedTransactionId = -1; // Reset selection
+            if (pageLoader.refresh() && !searchQuery.isEmpty()) {
+                runSearch(); // an edit may have changed which rows match
+            }
+            clearSelection(); // Reset selection
         }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
+        searchHandler.removeCallbacks(searchRunnable);
+        if (pageLoader != null) {
+            pageLoader.stopWatching();
         }
     }
 }
\ No newline at end of file
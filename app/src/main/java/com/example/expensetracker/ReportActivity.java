@@ -2,28 +2,43 @@ package com.example.expensetracker;
 
 import android.annotation.SuppressLint;
 import android.content.Intent;
-import android.database.Cursor;
+import android.net.Uri;
 import android.os.Bundle;
-import android.view.Gravity;
+import android.util.Log;
+import android.view.View;
 import android.widget.Button;
-import android.widget.LinearLayout;
-import android.widget.TableLayout;
-import android.widget.TableRow;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
-import java.text.NumberFormat;
-import java.util.Locale;
+import androidx.recyclerview.widget.RecyclerView;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 public class ReportActivity extends AppCompatActivity {
 
-    private TextView tvTotalIncome, tvTotalExpense, tvWallet;
-    private Button btnDone;
-    private TableLayout tableTransactions;
-    private DatabaseHelper databaseHelper;
+    private TextView tvTotalIncome, tvTotalExpense, tvWallet, tvEmpty;
+    private TextView tvIncomeLabel, tvExpenseLabel, tvListTitle;
+    private Button btnDone, btnImport, btnExport, btnFilter;
+    private RecyclerView recyclerTransactions;
+    private TransactionRepository repository;
+    private TransactionPageLoader pageLoader;
     private int userId;
 
+    // Lets the user pick a CSV file to import
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importCsv);
+
+    // One launcher per export format, since CreateDocument fixes the MIME type
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TransactionExporter.Format.CSV.mimeType),
+            uri -> export(uri, TransactionExporter.Format.CSV));
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(TransactionExporter.Format.JSON.mimeType),
+            uri -> export(uri, TransactionExporter.Format.JSON));
+
     @SuppressLint({"MissingInflatedId", "SetTextI18n"})
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,164 +54,172 @@ public class ReportActivity extends AppCompatActivity {
             return;
         }
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views
         tvTotalIncome = findViewById(R.id.tvTotalIncome);
         tvTotalExpense = findViewById(R.id.tvTotalExpense);
         tvWallet = findViewById(R.id.tvWallet);
+        tvEmpty = findViewById(R.id.tvEmpty);
+        tvIncomeLabel = findViewById(R.id.tvIncomeLabel);
+        tvExpenseLabel = findViewById(R.id.tvExpenseLabel);
+        tvListTitle = findViewById(R.id.tvListTitle);
         btnDone = findViewById(R.id.btnDone);
-        tableTransactions = findViewById(R.id.tableTransactions);
-
-        // Load report data
-        loadReportData();
-        loadAllTransactions();
-
+        btnFilter = findViewById(R.id.btnFilter);
+        btnImport = findViewById(R.id.btnImport);
+        btnExport = findViewById(R.id.btnExport);
+        recyclerTransactions = findViewById(R.id.recyclerTransactions);
+
+        // Transaction list is paged in as the user scrolls
+        pageLoader = new TransactionPageLoader(repository, new TransactionAdapter(this), userId);
+        pageLoader.attach(recyclerTransactions);
+        pageLoader.setListener((firstPage, loadedCount) -> {
+            // Show message if no transactions
+            if (firstPage) {
+                tvEmpty.setVisibility(loadedCount == 0 ? View.VISIBLE : View.GONE);
+            }
+        });
+        pageLoader.watch(repository.getInvalidationTracker());
+
+        btnImport.setOnClickListener(v -> importLauncher.launch(
+                new String[]{"text/csv", "text/comma-separated-values", "text/plain"}));
+        btnExport.setOnClickListener(v -> chooseExportFormat());
+        btnFilter.setOnClickListener(v -> TransactionFilterDialog.show(this, repository, pageLoader.getFilter(),
+                this::applyFilter));
         btnDone.setOnClickListener(v -> finish());
     }
 
-    private void loadReportData() {
-        if (userId == -1) return;
-
-        try {
-            // Get ALL transactions (lifetime) for this user
-            Cursor cursor = databaseHelper.getAllTransactions(userId);
-
-            double totalIncome = 0;
-            double totalExpense = 0;
-
-            // Calculate totals from ALL transactions
-            if (cursor != null && cursor.moveToFirst()) {
-                do {
-                    String type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-                    double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT));
-
-                    if (type.equals("Income")) {
-                        totalIncome += amount;
-                    } else if (type.equals("Expense")) {
-                        totalExpense += amount;
+    private void chooseExportFormat() {
+        new android.app.AlertDialog.Builder(this)
+                .setTitle("Export Transactions")
+                .setItems(new String[]{"CSV", "JSON"}, (dialog, which) -> {
+                    if (which == 0) {
+                        exportCsvLauncher.launch("transactions." + TransactionExporter.Format.CSV.extension);
+                    } else {
+                        exportJsonLauncher.launch("transactions." + TransactionExporter.Format.JSON.extension);
                     }
-                } while (cursor.moveToNext());
-                cursor.close();
-            }
-
-            // Calculate wallet (lifetime balance)
-            double walletBalance = totalIncome - totalExpense;
-
-            // Format currency
-            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-
-            // Update UI
-            tvTotalIncome.setText(currencyFormat.format(totalIncome));
-            tvTotalExpense.setText(currencyFormat.format(totalExpense));
+                })
+                .show();
+    }
 
-            // Set wallet text with color coding
-            tvWallet.setText(currencyFormat.format(walletBalance));
-            if (walletBalance >= 0) {
-                tvWallet.setTextColor(ContextCompat.getColor(this, android.R.color.holo_green_dark));
-            } else {
-                tvWallet.setTextColor(ContextCompat.getColor(this, android.R.color.holo_red_dark));
-            }
+    private void export(Uri uri, TransactionExporter.Format format) {
+        if (uri == null) return; // picker cancelled
 
+        OutputStream output;
+        try {
+            output = getContentResolver().openOutputStream(uri);
         } catch (Exception e) {
-            Toast.makeText(this, "Error loading report data", Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
+            Log.e("ReportActivity", "Error opening export file: " + e.getMessage(), e);
+            Toast.makeText(this, "Could not create file", Toast.LENGTH_SHORT).show();
+            return;
         }
+        if (output == null) return;
+
+        btnExport.setEnabled(false);
+        repository.exportTransactions(userId, output, format, new TransactionRepository.Callback<Integer>() {
+            @Override
+            public void onResult(Integer exported) {
+                btnExport.setEnabled(true);
+                Toast.makeText(ReportActivity.this, "Exported " + exported + " transactions",
+                        Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                btnExport.setEnabled(true);
+                Log.e("ReportActivity", "Export failed: " + e.getMessage(), e);
+                Toast.makeText(ReportActivity.this, "Export failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
-    private void loadAllTransactions() {
-        if (userId == -1) return;
+    private void importCsv(Uri uri) {
+        if (uri == null) return; // picker cancelled
 
+        InputStream input;
         try {
-            // Clear existing table rows (keep header)
-            int childCount = tableTransactions.getChildCount();
-            if (childCount > 1) { // Keep header row (index 0)
-                tableTransactions.removeViews(1, childCount - 1);
+            input = getContentResolver().openInputStream(uri);
+        } catch (Exception e) {
+            Log.e("ReportActivity", "Error opening import file: " + e.getMessage(), e);
+            Toast.makeText(this, "Could not open file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        if (input == null) return;
+
+        btnImport.setEnabled(false);
+        repository.importTransactions(userId, input, new TransactionRepository.Callback<Integer>() {
+            @Override
+            public void onResult(Integer imported) {
+                btnImport.setEnabled(true);
+                Toast.makeText(ReportActivity.this, "Imported " + imported + " transactions",
+                        Toast.LENGTH_SHORT).show();
+                refreshIfChanged();
             }
 
-            // Get ALL transactions from database
-            Cursor cursor = databaseHelper.getAllTransactions(userId);
-
-            // Create table rows for each transaction
-            int rowColor = 0;
-            while (cursor.moveToNext()) {
-                String type = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE));
-                String categoryName = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME));
-                String description = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION));
-                String date = cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE));
-                double amount = cursor.getDouble(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT));
-
-                // Create table row
-                TableRow row = new TableRow(this);
-                row.setLayoutParams(new TableRow.LayoutParams(
-                        TableRow.LayoutParams.MATCH_PARENT,
-                        TableRow.LayoutParams.WRAP_CONTENT
-                ));
-
-                // Set alternating row colors
-                int backgroundColor = (rowColor % 2 == 0)
-                        ? ContextCompat.getColor(this, android.R.color.white)
-                        : ContextCompat.getColor(this, R.color.light_gray);
-                row.setBackgroundColor(backgroundColor);
-                rowColor++;
-
-                // Add cells to row
-                row.addView(createTableCell(type));
-                row.addView(createTableCell(categoryName));
-                row.addView(createTableCell(description.length() > 10 ? description.substring(0, 10) + "..." : description));
-                row.addView(createTableCell(formatDate(date)));
-                row.addView(createTableCell("$" + String.format(Locale.US, "%.2f", amount)));
-
-                // Add row to table
-                tableTransactions.addView(row);
+            @Override
+            public void onError(Exception e) {
+                btnImport.setEnabled(true);
+                Log.e("ReportActivity", "Import failed: " + e.getMessage(), e);
+                Toast.makeText(ReportActivity.this, "Import failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             }
+        });
+    }
 
-            cursor.close();
+    // Totals and list are only queried again when the user's transactions changed
+    private void refreshIfChanged() {
+        if (pageLoader.refresh()) {
+            loadReportData();
+        }
+    }
 
-            // Show message if no transactions
-            if (rowColor == 0) {
-                TableRow emptyRow = new TableRow(this);
-                TextView emptyText = new TextView(this);
-                emptyText.setText("No transactions found");
-                emptyText.setGravity(Gravity.CENTER);
-                emptyText.setPadding(16, 12, 16, 12);
-                emptyText.setTextSize(14);
-                emptyRow.addView(emptyText);
-                tableTransactions.addView(emptyRow);
-            }
+    // Totals and list both follow the filter; an empty filter means the lifetime view
+    private void applyFilter(TransactionFilter filter) {
+        pageLoader.setFilter(filter);
+        boolean filtered = !filter.isUnfiltered();
+        tvIncomeLabel.setText(filtered ? "Total Income (Filtered)" : "Total Income (Lifetime)");
+        tvExpenseLabel.setText(filtered ? "Total Expense (Filtered)" : "Total Expense (Lifetime)");
+        tvListTitle.setText(filtered ? "Filtered Transactions" : "All Transactions");
+        btnFilter.setText(filtered ? "FILTER (ON)" : "FILTER");
+        loadReportData();
+    }
 
-        } catch (Exception e) {
-            Toast.makeText(this, "Error loading transactions", Toast.LENGTH_SHORT).show();
-            e.printStackTrace();
+    private void loadReportData() {
+        if (userId == -1) return;
+
+        TransactionFilter filter = pageLoader.getFilter();
+        if (filter.isUnfiltered()) {
+            // Lifetime totals come from the user_balances row, not from the history
+            repository.getUserBalance(userId, balance -> {
+                if (filter.equals(pageLoader.getFilter())) {
+                    showReportData(balance.getIncomeCents(), balance.getExpenseCents());
+                }
+            });
+        } else {
+            repository.getTotals(filter, totals -> {
+                // Drop totals of a filter that has since been replaced
+                if (filter.equals(pageLoader.getFilter())) {
+                    showReportData(totals[0], totals[1]);
+                }
+            });
         }
     }
 
-    private TextView createTableCell(String text) {
-        TextView textView = new TextView(this);
-        textView.setText(text);
-        textView.setPadding(16, 12, 16, 12);
-        textView.setTextSize(12);
-        textView.setGravity(Gravity.CENTER);
-        textView.setLayoutParams(new TableRow.LayoutParams(
-                0, // 0dp for weight
-                TableRow.LayoutParams.WRAP_CONTENT,
-                1f // weight = 1
-        ));
-        return textView;
-    }
+    private void showReportData(long totalIncome, long totalExpense) {
+        // Calculate wallet (balance of the shown transactions)
+        long walletBalance = totalIncome - totalExpense;
 
-    private String formatDate(String date) {
-        // Format date from database (assuming format: YYYY-MM-DD)
-        try {
-            String[] parts = date.split("-");
-            if (parts.length == 3) {
-                return parts[1] + "/" + parts[2] + "/" + parts[0].substring(2); // MM/DD/YY
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        // Update UI, in the device's number format
+        tvTotalIncome.setText(Formatters.formatAmount(totalIncome));
+        tvTotalExpense.setText(Formatters.formatAmount(totalExpense));
+
+        // Set wallet text with color coding
+        tvWallet.setText(Formatters.formatAmount(walletBalance));
+        if (walletBalance >= 0) {
+            tvWallet.setTextColor(ContextCompat.getColor(this, android.R.color.holo_green_dark));
+        } else {
+            tvWallet.setTextColor(ContextCompat.getColor(this, android.R.color.holo_red_dark));
         }
-        return date;
     }
 
     @Override
@@ -204,16 +227,15 @@ public class ReportActivity extends AppCompatActivity {
         super.onResume();
         // Refresh data when returning to report
         if (userId != -1) {
-            loadReportData();
-            loadAllTransactions();
+            refreshIfChanged();
         }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (databaseHelper != null) {
-            databaseHelper.close();
+        if (pageLoader != null) {
+            pageLoader.stopWatching();
         }
     }
-}
\ No newline at end of file
+}
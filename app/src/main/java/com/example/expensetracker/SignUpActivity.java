@@ -13,15 +13,15 @@ public class SignUpActivity extends AppCompatActivity {
     private EditText etFirstName, etLastName, etUsername, etPassword, etConfirmPassword;
     private Button btnSignUp;
     private TextView tvLogin;
-    private DatabaseHelper databaseHelper;
+    private TransactionRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_signup);
 
-        // Initialize database helper
-        databaseHelper = new DatabaseHelper(this);
+        // Shared, application-scoped database
+        repository = new TransactionRepository(DatabaseHelper.getInstance(this));
 
         // Initialize views
         etFirstName = findViewById(R.id.etFirstName);
@@ -56,24 +56,20 @@ public class SignUpActivity extends AppCompatActivity {
             return;
         }
 
-        // Check if username is taken
-        if (databaseHelper.isUsernameTaken(username)) {
-            Toast.makeText(this, "Username already exists", Toast.LENGTH_SHORT).show();
-            return;
-        }
-
         // Register user with first name and last name
-        long result = databaseHelper.registerUser(firstName, lastName, username, password);
-
-        if (result != -1) {
-            // Registration successful
-            String displayName = firstName + (!lastName.isEmpty() ? " " + lastName : "");
-            Toast.makeText(this, "Welcome " + displayName + "!", Toast.LENGTH_SHORT).show();
-            goToLogin();
-        } else {
-            // Registration failed
-            Toast.makeText(this, "Registration failed. Try again.", Toast.LENGTH_SHORT).show();
-        }
+        repository.registerUser(firstName, lastName, username, password, result -> {
+            if (result == TransactionRepository.USERNAME_TAKEN) {
+                Toast.makeText(this, "Username already exists", Toast.LENGTH_SHORT).show();
+            } else if (result != -1) {
+                // Registration successful
+                String displayName = firstName + (!lastName.isEmpty() ? " " + lastName : "");
+                Toast.makeText(this, "Welcome " + displayName + "!", Toast.LENGTH_SHORT).show();
+                goToLogin();
+            } else {
+                // Registration failed
+                Toast.makeText(this, "Registration failed. Try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private boolean validateInput(String firstName, String username,
@@ -119,13 +115,4 @@ public class SignUpActivity extends AppCompatActivity {
         startActivity(intent);
         finish();
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        // Close database connection
-        if (databaseHelper != null) {
-            databaseHelper.close();
-        }
-    }
 }
\ No newline at end of file
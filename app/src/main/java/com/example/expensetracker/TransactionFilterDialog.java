@@ -0,0 +1,208 @@
+package com.example.expensetracker;
+
+import android.app.AlertDialog;
+import android.content.Context;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.RadioGroup;
+import android.widget.Spinner;
+import android.widget.Toast;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lets the user narrow a transaction list by type, period, amount range and
+ * categories, and hands the resulting {@link TransactionFilter} to a listener.
+ */
+public class TransactionFilterDialog {
+
+    public interface OnFilterAppliedListener {
+        void onFilterApplied(TransactionFilter filter);
+    }
+
+    // Spinner choices, in order; every period but the first ends today
+    private static final String[] PERIODS = {"All time", "Last 30 days", "This month", "This year"};
+
+    private final Context context;
+    private final TransactionRepository repository;
+    private final TransactionFilter current;
+    private final OnFilterAppliedListener listener;
+    private final Set<Integer> selectedCategoryIds;
+    private List<Category> categories = new ArrayList<>();
+
+    private TransactionFilterDialog(Context context, TransactionRepository repository, TransactionFilter current,
+                                    OnFilterAppliedListener listener) {
+        this.context = context;
+        this.repository = repository;
+        this.current = current;
+        this.listener = listener;
+        this.selectedCategoryIds = new HashSet<>(current.getCategoryIds());
+    }
+
+    public static void show(Context context, TransactionRepository repository, TransactionFilter current,
+                            OnFilterAppliedListener listener) {
+        new TransactionFilterDialog(context, repository, current, listener).show();
+    }
+
+    private void show() {
+        View view = LayoutInflater.from(context).inflate(R.layout.dialog_transaction_filter, null);
+        RadioGroup rgType = view.findViewById(R.id.rgFilterType);
+        Spinner spPeriod = view.findViewById(R.id.spFilterPeriod);
+        EditText etMinAmount = view.findViewById(R.id.etFilterMinAmount);
+        EditText etMaxAmount = view.findViewById(R.id.etFilterMaxAmount);
+        Button btnCategories = view.findViewById(R.id.btnFilterCategories);
+
+        // Start from the filter already in use
+        if ("Income".equals(current.getType())) {
+            rgType.check(R.id.rbFilterIncome);
+        } else if ("Expense".equals(current.getType())) {
+            rgType.check(R.id.rbFilterExpense);
+        } else {
+            rgType.check(R.id.rbFilterAll);
+        }
+
+        ArrayAdapter<String> periodAdapter = new ArrayAdapter<>(context, android.R.layout.simple_spinner_item, PERIODS);
+        periodAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        spPeriod.setAdapter(periodAdapter);
+        spPeriod.setSelection(periodOf(current));
+
+        if (current.getMinAmountCents() != null) etMinAmount.setText(Money.format(current.getMinAmountCents()));
+        if (current.getMaxAmountCents() != null) etMaxAmount.setText(Money.format(current.getMaxAmountCents()));
+
+        // Category names come from the database; the button stays disabled until they arrive
+        btnCategories.setEnabled(false);
+        btnCategories.setOnClickListener(v -> chooseCategories(btnCategories));
+        repository.getCategories(new TransactionRepository.Callback<List<Category>>() {
+            @Override
+            public void onResult(List<Category> result) {
+                categories = result;
+                btnCategories.setEnabled(true);
+                showSelectedCategories(btnCategories);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e("TransactionFilter", "Error loading categories: " + e.getMessage(), e);
+                Toast.makeText(context, "Could not load categories", Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        AlertDialog dialog = new AlertDialog.Builder(context)
+                .setTitle("Filter Transactions")
+                .setView(view)
+                .setPositiveButton("Apply", null) // replaced below so bad input keeps the dialog open
+                .setNeutralButton("Clear", (d, which) ->
+                        listener.onFilterApplied(TransactionFilter.forUser(current.getUserId())))
+                .setNegativeButton("Cancel", null)
+                .create();
+        dialog.setOnShowListener(d -> dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            TransactionFilter filter = buildFilter(rgType, spPeriod, etMinAmount, etMaxAmount);
+            if (filter != null) {
+                listener.onFilterApplied(filter);
+                dialog.dismiss();
+            }
+        }));
+        dialog.show();
+    }
+
+    // Null, after telling the user why, if the input does not make a valid filter
+    private TransactionFilter buildFilter(RadioGroup rgType, Spinner spPeriod,
+                                          EditText etMinAmount, EditText etMaxAmount) {
+        String type = null;
+        int checkedId = rgType.getCheckedRadioButtonId();
+        if (checkedId == R.id.rbFilterIncome) {
+            type = "Income";
+        } else if (checkedId == R.id.rbFilterExpense) {
+            type = "Expense";
+        }
+        int[] range = periodRange(spPeriod.getSelectedItemPosition());
+
+        try {
+            return new TransactionFilter.Builder(current.getUserId())
+                    .setType(type)
+                    .setDateRange(range == null ? null : range[0], range == null ? null : range[1])
+                    .setCategoryIds(selectedCategoryIds)
+                    .setAmountRange(parseAmount(etMinAmount), parseAmount(etMaxAmount))
+                    .build();
+        } catch (NumberFormatException e) {
+            Toast.makeText(context, "Please enter a valid amount", Toast.LENGTH_SHORT).show();
+        } catch (IllegalArgumentException e) {
+            Toast.makeText(context, e.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+        return null;
+    }
+
+    private void chooseCategories(Button btnCategories) {
+        String[] names = new String[categories.size()];
+        boolean[] checked = new boolean[categories.size()];
+        for (int i = 0; i < names.length; i++) {
+            Category category = categories.get(i);
+            names[i] = category.getName() + " (" + category.getType() + ")";
+            checked[i] = selectedCategoryIds.contains(category.getId());
+        }
+
+        new AlertDialog.Builder(context)
+                .setTitle("Categories")
+                .setMultiChoiceItems(names, checked, (d, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton("OK", (d, which) -> {
+                    selectedCategoryIds.clear();
+                    for (int i = 0; i < checked.length; i++) {
+                        if (checked[i]) selectedCategoryIds.add(categories.get(i).getId());
+                    }
+                    showSelectedCategories(btnCategories);
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showSelectedCategories(Button btnCategories) {
+        if (selectedCategoryIds.isEmpty()) {
+            btnCategories.setText("ALL CATEGORIES");
+        } else {
+            btnCategories.setText(selectedCategoryIds.size() + " CATEGORIES");
+        }
+    }
+
+    // Blank means no bound
+    private static Long parseAmount(EditText field) {
+        String text = field.getText().toString().trim();
+        return text.isEmpty() ? null : Money.parseCents(text);
+    }
+
+    // {from, to} epoch days of a period, or null for all time
+    private static int[] periodRange(int period) {
+        int today = EpochDays.today();
+        Calendar calendar = Calendar.getInstance();
+        switch (period) {
+            case 1:
+                // Same window as the dashboard's 30-day totals
+                return new int[]{today - DatabaseHelper.SUMMARY_WINDOW_DAYS, today};
+            case 2:
+                return new int[]{EpochDays.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1, 1), today};
+            case 3:
+                return new int[]{EpochDays.of(calendar.get(Calendar.YEAR), 1, 1), today};
+            default:
+                return null;
+        }
+    }
+
+    // Spinner position matching the filter's dates; all time if none does
+    private static int periodOf(TransactionFilter filter) {
+        for (int period = 1; period < PERIODS.length; period++) {
+            int[] range = periodRange(period);
+            if (filter.getFromEpochDay() != null && filter.getFromEpochDay() == range[0]
+                    && filter.getToEpochDay() != null && filter.getToEpochDay() == range[1]) {
+                return period;
+            }
+        }
+        return 0;
+    }
+}
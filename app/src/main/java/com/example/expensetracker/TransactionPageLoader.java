@@ -0,0 +1,277 @@
+package com.example.expensetracker;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Feeds a {@link TransactionAdapter} one page at a time, fetching the next
+ * page when the user scrolls close to the end of what is already loaded.
+ * While watching an {@link InvalidationTracker} it also remembers which rows
+ * were written, so {@link #refresh()} can patch just those.
+ */
+public class TransactionPageLoader extends RecyclerView.OnScrollListener
+        implements InvalidationTracker.Observer {
+
+    public static final int PAGE_SIZE = 50;
+
+    // Start loading the next page when this many rows are left below the screen
+    private static final int PREFETCH_DISTANCE = 15;
+
+    public interface Listener {
+        void onPageLoaded(boolean firstPage, int loadedCount);
+    }
+
+    private final TransactionRepository repository;
+    private final TransactionAdapter adapter;
+    private final int userId;
+    private TransactionFilter filter;
+    private Listener listener;
+
+    // Key of the last loaded row; the next page starts right after it
+    private int lastEpochDay;
+    private int lastId = -1;
+    private boolean loading;
+    private boolean endReached;
+    // Bumped on reload so a page from an older request is dropped
+    private int generation;
+
+    // Rows written since the list was last brought up to date; guarded by itself
+    private final Set<Integer> changedIds = new HashSet<>();
+    private boolean allChanged = true; // nothing loaded yet
+    // ALL_ROWS notices not yet handled; a batch edit made on this screen sends one
+    private int allRowsNotices;
+    private InvalidationTracker tracker;
+
+    public TransactionPageLoader(TransactionRepository repository, TransactionAdapter adapter, int userId) {
+        this.repository = repository;
+        this.adapter = adapter;
+        this.userId = userId;
+        this.filter = TransactionFilter.forUser(userId);
+    }
+
+    public TransactionFilter getFilter() {
+        return filter;
+    }
+
+    // Shows only the transactions passing the filter, starting again from the newest
+    public void setFilter(TransactionFilter filter) {
+        if (filter.getUserId() != userId) {
+            throw new IllegalArgumentException("Filter is for another user");
+        }
+        this.filter = filter;
+        reload();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.setLayoutManager(new LinearLayoutManager(recyclerView.getContext()));
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(this);
+    }
+
+    // Call stopWatching when the screen is destroyed
+    public void watch(InvalidationTracker tracker) {
+        this.tracker = tracker;
+        tracker.addObserver(this);
+    }
+
+    public void stopWatching() {
+        if (tracker != null) {
+            tracker.removeObserver(this);
+            tracker = null;
+        }
+    }
+
+    @Override
+    public void onTransactionsChanged(int changedUserId, long version, int transactionId) {
+        if (changedUserId != userId) return;
+        synchronized (changedIds) {
+            if (transactionId == InvalidationTracker.ALL_ROWS) {
+                allRowsNotices++;
+            } else {
+                changedIds.add(transactionId);
+            }
+        }
+    }
+
+    /**
+     * Brings the list up to date with the writes seen since the last load:
+     * nothing if there were none, the changed rows if there were a few, a
+     * reload from the first page otherwise. Returns false if nothing changed.
+     */
+    public boolean refresh() {
+        Set<Integer> ids;
+        synchronized (changedIds) {
+            boolean reload = allChanged || allRowsNotices > 0;
+            if (!reload && changedIds.isEmpty()) return false;
+            ids = reload || changedIds.size() > PAGE_SIZE ? null : new HashSet<>(changedIds);
+            allChanged = false;
+            allRowsNotices = 0;
+            changedIds.clear();
+        }
+        // A page in flight may hold an old copy of a changed row, and an empty list needs the first-page callback
+        if (ids == null || loading || adapter.getItemCount() == 0) {
+            reload();
+        } else {
+            refreshRows(ids);
+        }
+        return true;
+    }
+
+    // Takes rows this screen deleted off the list without asking the database again; once per batch delete
+    public void removeRows(Collection<Integer> ids) {
+        if (loading) {
+            reload(); // a page in flight may still hold them
+            return;
+        }
+        forget(ids);
+        adapter.removeTransactions(ids);
+        // A mass delete can leave too few rows to scroll, and so to page in more
+        if (!endReached && adapter.getItemCount() < PAGE_SIZE) {
+            loadNextPage();
+        } else if (adapter.getItemCount() == 0 && listener != null) {
+            listener.onPageLoaded(true, 0);
+        }
+    }
+
+    // Shows rows this screen moved to another category under their new name; once per batch move
+    public void recategorizeRows(Collection<Integer> ids, Category category) {
+        if (!filter.getCategoryIds().isEmpty()) {
+            refresh(); // rows may have moved into or out of the filter
+            return;
+        }
+        if (loading) {
+            reload();
+            return;
+        }
+        forget(ids);
+        adapter.recategorizeTransactions(ids, category);
+    }
+
+    // Starts again from the newest transaction
+    public void reload() {
+        synchronized (changedIds) {
+            allChanged = false;
+            allRowsNotices = 0;
+            changedIds.clear();
+        }
+        generation++;
+        lastEpochDay = 0;
+        lastId = -1;
+        endReached = false;
+        loadNextPage();
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (loading || endReached || dy <= 0) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager != null
+                && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        loading = true;
+        int requestGeneration = generation;
+        boolean firstPage = lastId < 0;
+        repository.getTransactionsPage(filter, lastEpochDay, lastId, PAGE_SIZE,
+                new TransactionRepository.Callback<List<Transaction>>() {
+                    @Override
+                    public void onResult(List<Transaction> page) {
+                        if (requestGeneration != generation) return;
+                        onPageLoaded(firstPage, page);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        TransactionRepository.Callback.super.onError(e);
+                        if (requestGeneration == generation) {
+                            loading = false; // allow a retry on the next scroll
+                        }
+                    }
+                });
+    }
+
+    private void refreshRows(Set<Integer> ids) {
+        loading = true; // no paging while rows move around
+        int requestGeneration = generation;
+        // Rows that no longer pass the filter come back missing, like deleted ones
+        repository.getTransactionsByIds(filter, ids, new TransactionRepository.Callback<List<Transaction>>() {
+            @Override
+            public void onResult(List<Transaction> rows) {
+                if (requestGeneration != generation) return;
+                loading = false;
+                // Deleted rows are simply missing from the result
+                for (int id : ids) {
+                    adapter.removeTransaction(id);
+                }
+                for (Transaction row : rows) {
+                    // Rows past the last loaded one arrive with a later page
+                    if (endReached || isLoaded(row)) {
+                        adapter.insertTransaction(row);
+                    }
+                }
+                if (adapter.getItemCount() == 0 && listener != null) {
+                    listener.onPageLoaded(true, 0);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                TransactionRepository.Callback.super.onError(e);
+                if (requestGeneration == generation) {
+                    loading = false;
+                    synchronized (changedIds) {
+                        allChanged = true; // reload on the next refresh
+                    }
+                }
+            }
+        });
+    }
+
+    // The rows of a batch edit are already up to date on screen, so its ALL_ROWS notice needs no reload
+    private void forget(Collection<Integer> ids) {
+        synchronized (changedIds) {
+            changedIds.removeAll(ids);
+            // Notices from other writers, like an import, still count
+            if (allRowsNotices > 0) allRowsNotices--;
+        }
+    }
+
+    // True if the row sorts at or before the last loaded one
+    private boolean isLoaded(Transaction row) {
+        return lastId >= 0 && (row.getEpochDay() > lastEpochDay
+                || (row.getEpochDay() == lastEpochDay && row.getId() >= lastId));
+    }
+
+    private void onPageLoaded(boolean firstPage, List<Transaction> page) {
+        loading = false;
+        endReached = page.size() < PAGE_SIZE;
+        if (!page.isEmpty()) {
+            Transaction last = page.get(page.size() - 1);
+            lastEpochDay = last.getEpochDay();
+            lastId = last.getId();
+        }
+
+        if (firstPage) {
+            adapter.setTransactions(page);
+        } else {
+            adapter.appendTransactions(page);
+        }
+        if (listener != null) {
+            listener.onPageLoaded(firstPage, page.size());
+        }
+    }
+}
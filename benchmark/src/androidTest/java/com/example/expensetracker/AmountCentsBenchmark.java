@@ -0,0 +1,54 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * The integer-cents totals over one million random transactions: the full
+ * balance check against a scan of transactions, and the monthly rollup
+ * over the whole seeded span. AmountCentsTest checks that the totals are
+ * exact on a few hundred rows.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AmountCentsBenchmark {
+
+    private static final int ROW_COUNT = 1_000_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    @Before
+    public void setUp() {
+        databaseHelper = BenchmarkDatabases.get(ROW_COUNT);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+    }
+
+    @Test
+    public void verifyUserBalances() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.verifyUserBalances();
+        }
+    }
+
+    @Test
+    public void getMonthlyBreakdown_allMonths() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (MonthlyCategoryTotal total : databaseHelper.getMonthlyBreakdown(userId, "0000-00", "9999-99")) {
+                sink += total.getTotalCents();
+            }
+        }
+    }
+}
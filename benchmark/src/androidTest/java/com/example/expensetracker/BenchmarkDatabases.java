@@ -0,0 +1,89 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic on-disk databases for the benchmarks. Each size is seeded once
+ * per process and shared by every benchmark that asks for it.
+ */
+final class BenchmarkDatabases {
+
+    static final String USERNAME = "bench";
+    static final String[] EXPENSE_CATEGORIES = {"Food", "Rent", "Transport", "Utilities", "Fun"};
+    static final String[] INCOME_CATEGORIES = {"Salary", "Gift"};
+    // Repeating descriptions, as real histories have, so search sees realistic word frequencies
+    static final String[] DESCRIPTIONS = {
+            "Coffee", "Lunch with team", "Groceries", "Taxi home", "Electricity bill", "Water bill",
+            "Cinema tickets", "Bus pass", "Dinner out", "Pharmacy", "Books", "Gym membership",
+            "Phone bill", "Concert", "Bakery", "Fuel", "Parking", "Train ticket", "Internet", "Monthly pay"};
+
+    // Seeded dates spread over this many days ending today
+    static final int DAY_SPAN = 3 * 365;
+
+    private static final int CHUNK = 10_000;
+    private static final Map<Integer, DatabaseHelper> seeded = new HashMap<>();
+
+    private BenchmarkDatabases() {
+    }
+
+    static Context context() {
+        return InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    // Database holding rowCount transactions of the user USERNAME
+    static synchronized DatabaseHelper get(int rowCount) {
+        DatabaseHelper helper = seeded.get(rowCount);
+        if (helper == null) {
+            String name = "benchmark-" + rowCount + ".db";
+            context().deleteDatabase(name);
+            helper = new DatabaseHelper(context(), name);
+            seed(helper, rowCount);
+            seeded.put(rowCount, helper);
+        }
+        return helper;
+    }
+
+    static int userId(DatabaseHelper helper) {
+        return helper.getUserId(USERNAME);
+    }
+
+    static void seed(DatabaseHelper helper, int rowCount) {
+        int userId = (int) helper.registerUser("Bench", "User", USERNAME, "secret");
+        int[] expenseIds = new int[EXPENSE_CATEGORIES.length];
+        for (int i = 0; i < expenseIds.length; i++) {
+            expenseIds[i] = helper.getOrCreateCategory(EXPENSE_CATEGORIES[i], "Expense");
+        }
+        int[] incomeIds = new int[INCOME_CATEGORIES.length];
+        for (int i = 0; i < incomeIds.length; i++) {
+            incomeIds[i] = helper.getOrCreateCategory(INCOME_CATEGORIES[i], "Income");
+        }
+
+        Random random = new Random(42);
+        int today = EpochDays.today();
+        List<Transaction> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < rowCount; i++) {
+            // Roughly one income per four expenses, up to $1,000.00 each
+            boolean income = random.nextInt(5) == 0;
+            int categoryId = income ? incomeIds[random.nextInt(incomeIds.length)]
+                    : expenseIds[random.nextInt(expenseIds.length)];
+            long amountCents = 1 + random.nextInt(100_000);
+            int epochDay = today - random.nextInt(DAY_SPAN);
+            String description = DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)];
+            chunk.add(new Transaction(-1, userId, categoryId, income ? "Income" : "Expense", null,
+                    description, amountCents, epochDay));
+            if (chunk.size() == CHUNK) {
+                helper.bulkInsertTransactions(chunk);
+                chunk.clear();
+            }
+        }
+        helper.bulkInsertTransactions(chunk);
+    }
+}
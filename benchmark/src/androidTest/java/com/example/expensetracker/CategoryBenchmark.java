@@ -0,0 +1,76 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Category lookups against 10k categories, through the helper's cache and
+ * through the indexed query it falls back to.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CategoryBenchmark {
+
+    private static final int CATEGORY_COUNT = 10_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private DatabaseHelper databaseHelper;
+    private String[] names;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    @Before
+    public void setUp() {
+        databaseHelper = new DatabaseHelper(BenchmarkDatabases.context(), null);
+        names = new String[CATEGORY_COUNT];
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < CATEGORY_COUNT; i++) {
+                names[i] = "Category " + i;
+                databaseHelper.addCategory(names[i], "Expense");
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void getOrCreateCategory_existing() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            sink += databaseHelper.getOrCreateCategory(names[i], "Expense");
+            i = (i + 1) % CATEGORY_COUNT;
+        }
+    }
+
+    @Test
+    public void getCategoryByNameAndType_query() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            try (Cursor cursor = databaseHelper.getCategoryByNameAndType(names[i], "Expense")) {
+                sink += cursor.moveToFirst() ? cursor.getInt(0) : -1;
+            }
+            i = (i + 1) % CATEGORY_COUNT;
+        }
+    }
+}
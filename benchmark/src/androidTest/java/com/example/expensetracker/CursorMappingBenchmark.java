@@ -0,0 +1,80 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Copying one page of an already filled cursor into Transaction objects, so
+ * only the per-row mapping is measured, not the query. Compare the
+ * allocation counts: with column lookups per row, every row also reads its
+ * type and category name as new Strings. TransactionRowMapper allocates only
+ * the Transaction and its description per row, which the list keeps anyway.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CursorMappingBenchmark {
+
+    private static final int ROW_COUNT = 100_000;
+    // Same as TransactionPageLoader.PAGE_SIZE in the app
+    private static final int PAGE_SIZE = 50;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Cursor cursor;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    @Before
+    public void setUp() {
+        DatabaseHelper databaseHelper = BenchmarkDatabases.get(ROW_COUNT);
+        cursor = databaseHelper.getLatestTransactions(BenchmarkDatabases.userId(databaseHelper), PAGE_SIZE);
+        cursor.getCount(); // runs the query and fills the window up front
+    }
+
+    @After
+    public void tearDown() {
+        cursor.close();
+    }
+
+    // The loop readTransactions used to run
+    @Test
+    public void mapPage_columnLookupPerRow() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            cursor.moveToPosition(-1);
+            while (cursor.moveToNext()) {
+                Transaction transaction = new Transaction(
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TRANSACTION_ID)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_USER_ID)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_ID)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME)),
+                        cursor.getString(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION)),
+                        cursor.getLong(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT)),
+                        cursor.getInt(cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE)));
+                sink += transaction.getId();
+            }
+        }
+    }
+
+    @Test
+    public void mapPage_rowMapper() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            cursor.moveToPosition(-1);
+            TransactionRowMapper mapper = new TransactionRowMapper(cursor);
+            while (cursor.moveToNext()) {
+                sink += mapper.read().getId();
+            }
+        }
+    }
+}
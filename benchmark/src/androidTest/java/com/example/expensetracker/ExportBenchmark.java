@@ -0,0 +1,72 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming export of 100k transactions into a writer that drops the
+ * output, so only the query and formatting work is measured.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ExportBenchmark {
+
+    private static final int ROW_COUNT = 100_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private TransactionExporter exporter;
+    private int userId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    @Before
+    public void setUp() {
+        DatabaseHelper databaseHelper = BenchmarkDatabases.get(ROW_COUNT);
+        exporter = new TransactionExporter(databaseHelper);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+    }
+
+    @Test
+    public void exportCsv() throws IOException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += exporter.export(userId, new DiscardingWriter(), TransactionExporter.Format.CSV);
+        }
+    }
+
+    @Test
+    public void exportJson() throws IOException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += exporter.export(userId, new DiscardingWriter(), TransactionExporter.Format.JSON);
+        }
+    }
+
+    private static class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Amount and date formatting through the shared Formatters, next to the
+ * formatter-per-call code the screens used before.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FormatterBenchmark {
+
+    private static final long AMOUNT_CENTS = 123_456;
+    private static final int EPOCH_DAY = EpochDays.of(2025, 3, 9);
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    // What the dashboard and report screens did on every load
+    @Test
+    public void amount_newNumberFormatPerCall() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.getDefault());
+            sink += currencyFormat.format(Money.toDecimal(AMOUNT_CENTS)).length();
+        }
+    }
+
+    @Test
+    public void amount_sharedFormatter() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += Formatters.formatAmount(AMOUNT_CENTS).length();
+        }
+    }
+
+    // As list rows bind it; compare the allocation count with the two above
+    @Test
+    public void amount_intoBuffer() {
+        AmountFormatter amounts = Formatters.amounts();
+        char[] text = new char[amounts.getMaxLength()];
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += amounts.formatInto(AMOUNT_CENTS, text, 0);
+        }
+    }
+
+    // What the add screen did for its date label
+    @Test
+    public void longDate_newSimpleDateFormatPerCall() {
+        Date date = new Date();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            SimpleDateFormat dateFormat = new SimpleDateFormat("EEEE, MMM d, yyyy", Locale.getDefault());
+            sink += dateFormat.format(date).length();
+        }
+    }
+
+    @Test
+    public void longDate_perThreadFormat() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += Formatters.formatLongDate(EPOCH_DAY).length();
+        }
+    }
+
+    // Row dates also go through the per-day label cache
+    @Test
+    public void shortDate_cachedLabel() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += EpochDays.toDisplay(EPOCH_DAY).length();
+        }
+    }
+}
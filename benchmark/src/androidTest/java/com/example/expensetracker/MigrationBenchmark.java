@@ -0,0 +1,83 @@
+package com.example.expensetracker;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Upgrading a version 5 database (REAL amounts, TEXT dates) through the
+ * cents and epoch-day migrations. The table is rebuilt untimed before each
+ * iteration; the migrations copy every row, so cost grows linearly with
+ * the row count.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationBenchmark {
+
+    private static final int ROW_COUNT = 100_000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        databaseHelper = new DatabaseHelper(BenchmarkDatabases.context(), null);
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void migrateVersion5To7() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            SQLiteDatabase db = createVersion5Database();
+            state.resumeTiming();
+
+            for (int version = 6; version <= 7; version++) {
+                db.beginTransaction();
+                try {
+                    databaseHelper.getMigration(version).migrate(db);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            state.pauseTiming();
+            db.close();
+            state.resumeTiming();
+        }
+    }
+
+    private static SQLiteDatabase createVersion5Database() {
+        SQLiteDatabase db = SQLiteDatabase.create(null);
+        db.execSQL("CREATE TABLE users(user_id INTEGER PRIMARY KEY AUTOINCREMENT, first_name TEXT NOT NULL," +
+                " last_name TEXT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL)");
+        db.execSQL("CREATE TABLE categories(category_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " name TEXT NOT NULL, type TEXT NOT NULL)");
+        db.execSQL("CREATE TABLE transactions(transaction_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " user_id INTEGER NOT NULL, category_id INTEGER NOT NULL, type TEXT NOT NULL," +
+                " description TEXT, amount REAL NOT NULL CHECK(amount > 0), date TEXT NOT NULL)");
+        db.execSQL("INSERT INTO users VALUES (1, 'Bench', 'User', 'bench', 'secret')");
+        db.execSQL("INSERT INTO categories VALUES (1, 'Food', 'Expense'), (2, 'Salary', 'Income')");
+        // Alternating expenses and incomes spread over about four years
+        db.execSQL("WITH RECURSIVE seq(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM seq WHERE i < " + ROW_COUNT + ")" +
+                " INSERT INTO transactions(user_id, category_id, type, description, amount, date)" +
+                " SELECT 1, 1 + i % 2, CASE i % 2 WHEN 0 THEN 'Expense' ELSE 'Income' END, 'Row ' || i," +
+                " (i % 10000 + 1) / 100.0, date('2020-01-01', '+' || (i % 1500) || ' days') FROM seq");
+        return db;
+    }
+}
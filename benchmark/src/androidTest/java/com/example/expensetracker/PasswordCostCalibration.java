@@ -0,0 +1,62 @@
+package com.example.expensetracker;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Finds the PBKDF2 iteration count that fits the login budget on the device
+ * under test. Login and sign-up hash off the main thread, so the budget is
+ * about how long the user waits, not about dropped frames.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PasswordCostCalibration {
+
+    private static final String TAG = "PasswordCostCalibration";
+
+    // How long one hash may take during login or sign-up
+    private static final long BUDGET_MS = 100;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+    private static final int CALIBRATION_RUNS = 9;
+
+    /**
+     * Times a fixed number of iterations and scales it to the budget. The
+     * result is logged and sent as instrumentation status (key
+     * "recommendedIterations"); it only needs to run once per device.
+     */
+    @Test
+    public void recommendIterationsForBudget() {
+        PasswordHasher hasher = new PasswordHasher(CALIBRATION_ITERATIONS);
+        long[] runs = new long[CALIBRATION_RUNS];
+        hasher.hash("warm up");
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            hasher.hash("correct horse battery staple");
+            runs[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        double nanosPerIteration = (double) runs[runs.length / 2] / CALIBRATION_ITERATIONS;
+        // Round down to a multiple of 10,000 so the stored cost stays readable
+        int recommended = (int) (BUDGET_MS * 1_000_000L / nanosPerIteration) / 10_000 * 10_000;
+        long defaultCostMs = Math.round(nanosPerIteration * PasswordHasher.DEFAULT_ITERATIONS / 1_000_000);
+
+        String summary = "recommended " + recommended + " iterations for " + BUDGET_MS + " ms; default "
+                + PasswordHasher.DEFAULT_ITERATIONS + " takes ~" + defaultCostMs + " ms";
+        Log.i(TAG, summary);
+        Bundle status = new Bundle();
+        status.putInt("recommendedIterations", recommended);
+        status.putLong("defaultIterationsMs", defaultCostMs);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+
+        assertTrue(summary, recommended > 0);
+    }
+}
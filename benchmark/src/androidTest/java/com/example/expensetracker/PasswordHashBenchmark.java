@@ -0,0 +1,45 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Cost of one password hash at several PBKDF2 iteration counts. See
+ * PasswordCostCalibration for the count that fits the login budget.
+ */
+@RunWith(Parameterized.class)
+public class PasswordHashBenchmark {
+
+    @Parameterized.Parameters(name = "iterations={0}")
+    public static Collection<Object[]> iterationCounts() {
+        return Arrays.asList(new Object[][]{{10_000}, {50_000}, {100_000}, {200_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int iterations;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    public PasswordHashBenchmark(int iterations) {
+        this.iterations = iterations;
+    }
+
+    @Test
+    public void hash() {
+        PasswordHasher hasher = new PasswordHasher(iterations);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += hasher.hash("correct horse battery staple").length();
+        }
+    }
+}
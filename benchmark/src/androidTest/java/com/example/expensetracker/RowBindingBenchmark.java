@@ -0,0 +1,95 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.widget.FrameLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+/**
+ * Binding report list rows. The views are detached, so this measures the
+ * adapter's own work (text formatting and setText) without layout or draw.
+ * Allocation counts are reported next to the timings; setText still
+ * allocates inside TextView, so onBindViewHolder is not allocation-free.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RowBindingBenchmark {
+
+    private static final int ROW_COUNT = 100_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private TransactionAdapter adapter;
+    private TransactionAdapter.ViewHolder holder;
+    private List<Transaction> page;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    @Before
+    public void setUp() {
+        DatabaseHelper databaseHelper = BenchmarkDatabases.get(ROW_COUNT);
+        page = databaseHelper.getTransactionsPage(BenchmarkDatabases.userId(databaseHelper), 0, -1, PAGE_SIZE);
+
+        Context context = BenchmarkDatabases.context();
+        adapter = new TransactionAdapter(context);
+        adapter.setTransactions(page);
+        holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+    }
+
+    @Test
+    public void onBindViewHolder() {
+        BenchmarkState state = benchmarkRule.getState();
+        int position = 0;
+        while (state.keepRunning()) {
+            adapter.onBindViewHolder(holder, position);
+            position = (position + 1) % PAGE_SIZE;
+        }
+    }
+
+    @Test
+    public void onCreateViewHolder() {
+        FrameLayout parent = new FrameLayout(BenchmarkDatabases.context());
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += adapter.onCreateViewHolder(parent, 0).itemView.getId();
+        }
+    }
+
+    // Just the strings a row shows, without touching views, built as new Strings
+    @Test
+    public void formatRowText() {
+        BenchmarkState state = benchmarkRule.getState();
+        int position = 0;
+        while (state.keepRunning()) {
+            Transaction transaction = page.get(position);
+            sink += EpochDays.toDisplay(transaction.getEpochDay()).length()
+                    + Formatters.formatAmount(transaction.getAmountCents()).length();
+            position = (position + 1) % PAGE_SIZE;
+        }
+    }
+
+    // The same text written into a reused buffer, as onBindViewHolder does; compare the allocation counts
+    @Test
+    public void formatRowTextIntoBuffer() {
+        AmountFormatter amounts = Formatters.amounts();
+        char[] amountText = new char[amounts.getMaxLength()];
+        BenchmarkState state = benchmarkRule.getState();
+        int position = 0;
+        while (state.keepRunning()) {
+            Transaction transaction = page.get(position);
+            sink += EpochDays.toDisplay(transaction.getEpochDay()).length()
+                    + amounts.formatInto(transaction.getAmountCents(), amountText, 0);
+            position = (position + 1) % PAGE_SIZE;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.expensetracker;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * searchTransactions over 1k, 100k and 1M transactions. Each query should
+ * stay under 20 ms at every size; the LIKE scan it replaces is measured
+ * next to it.
+ */
+@RunWith(Parameterized.class)
+public class SearchBenchmark {
+
+    // Results the search screen asks for
+    private static final int LIMIT = 100;
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rowCounts() {
+        return Arrays.asList(new Object[][]{{1_000}, {100_000}, {1_000_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rowCount;
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    public SearchBenchmark(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Before
+    public void setUp() {
+        databaseHelper = BenchmarkDatabases.get(rowCount);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+    }
+
+    // One word of a description that about 1 in 20 rows has
+    @Test
+    public void search_word() {
+        measure("coffee");
+    }
+
+    // Two-letter prefix, served by the prefix index
+    @Test
+    public void search_shortPrefix() {
+        measure("co");
+    }
+
+    // Every word must match, as typed so far
+    @Test
+    public void search_twoPrefixes() {
+        measure("water bi");
+    }
+
+    @Test
+    public void search_categoryName() {
+        measure("sal");
+    }
+
+    @Test
+    public void search_noMatch() {
+        measure("zzz");
+    }
+
+    // The same search without the index: a LIKE scan of the user's history
+    @Test
+    public void search_likeScan() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        String query = "SELECT t.*, c." + DatabaseHelper.COLUMN_CATEGORY_NAME +
+                " FROM " + DatabaseHelper.TABLE_TRANSACTIONS + " t" +
+                " INNER JOIN " + DatabaseHelper.TABLE_CATEGORIES + " c ON t." + DatabaseHelper.COLUMN_CATEGORY_ID +
+                " = c." + DatabaseHelper.COLUMN_CATEGORY_ID +
+                " WHERE t." + DatabaseHelper.COLUMN_USER_ID + " = ?" +
+                " AND (t." + DatabaseHelper.COLUMN_DESCRIPTION + " LIKE ? OR c." + DatabaseHelper.COLUMN_CATEGORY_NAME +
+                " LIKE ?)" +
+                " ORDER BY t." + DatabaseHelper.COLUMN_DATE + " DESC LIMIT " + LIMIT;
+        String[] args = {String.valueOf(userId), "%water bi%", "%water bi%"};
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += DatabaseHelper.readTransactions(db.rawQuery(query, args)).size();
+        }
+    }
+
+    private void measure(String query) {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.searchTransactions(userId, query, LIMIT).size();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.expensetracker;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read paths of DatabaseHelper over 1k, 100k and 1M transactions. Where a
+ * method replaced an older query, the older form is measured next to it.
+ */
+@RunWith(Parameterized.class)
+public class TransactionQueryBenchmark {
+
+    // Same as TransactionPageLoader.PAGE_SIZE in the app
+    private static final int PAGE_SIZE = 50;
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rowCounts() {
+        return Arrays.asList(new Object[][]{{1_000}, {100_000}, {1_000_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rowCount;
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    public TransactionQueryBenchmark(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Before
+    public void setUp() {
+        databaseHelper = BenchmarkDatabases.get(rowCount);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+    }
+
+    @Test
+    public void getAllTransactions_iterate() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            try (Cursor cursor = databaseHelper.getAllTransactions(userId)) {
+                int amountIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT);
+                int dateIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE);
+                while (cursor.moveToNext()) {
+                    sink += cursor.getLong(amountIndex) + cursor.getInt(dateIndex);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void getLifetimeTotals() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getLifetimeTotals(userId)[0];
+        }
+    }
+
+    // The same totals as getLifetimeTotals before it used cached statements
+    @Test
+    public void getLifetimeTotals_rawQuery() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += sumForType(db, "Income") + sumForType(db, "Expense");
+        }
+    }
+
+    // Lifetime and 30-day totals the way the dashboard read them before getSummary
+    @Test
+    public void summary_fourQueries() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getLifetimeTotals(userId)[1]
+                    + databaseHelper.getTotalIncomeLast30Days(userId)
+                    + databaseHelper.getTotalExpenseLast30Days(userId);
+        }
+    }
+
+    @Test
+    public void summary_getSummary() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getSummary(userId, DatabaseHelper.SUMMARY_WINDOW_DAYS)
+                    .getWindowExpenseCents();
+        }
+    }
+
+    @Test
+    public void getUserBalance() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getUserBalance(userId).getBalanceCents();
+        }
+    }
+
+    @Test
+    public void getTransactionsPage_first() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getTransactionsPage(userId, 0, -1, PAGE_SIZE).size();
+        }
+    }
+
+    // The last page; keyset paging should cost the same as the first
+    @Test
+    public void getTransactionsPage_last() {
+        int offset = Math.max(0, rowCount - PAGE_SIZE - 1);
+        int beforeEpochDay;
+        int beforeId;
+        try (Cursor cursor = databaseHelper.getReadableDatabase().rawQuery("SELECT " +
+                DatabaseHelper.COLUMN_DATE + ", " + DatabaseHelper.COLUMN_TRANSACTION_ID +
+                " FROM " + DatabaseHelper.TABLE_TRANSACTIONS + " ORDER BY " + DatabaseHelper.COLUMN_DATE +
+                " DESC, " + DatabaseHelper.COLUMN_TRANSACTION_ID + " DESC LIMIT 1 OFFSET " + offset, null)) {
+            cursor.moveToFirst();
+            beforeEpochDay = cursor.getInt(0);
+            beforeId = cursor.getInt(1);
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getTransactionsPage(userId, beforeEpochDay, beforeId, PAGE_SIZE).size();
+        }
+    }
+
+    @Test
+    public void getTotalsInRange_oneMonth() {
+        int to = EpochDays.today();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getTotalsInRange(userId, to - 30, to)[1];
+        }
+    }
+
+    @Test
+    public void getTransactionsInRange_oneMonth() {
+        int to = EpochDays.today();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            List<Transaction> rows = databaseHelper.getTransactionsInRange(userId, to - 30, to);
+            sink += rows.size();
+        }
+    }
+
+    @Test
+    public void sumAmounts_integerCents() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += DatabaseUtils.longForQuery(db, "SELECT SUM(" + DatabaseHelper.COLUMN_AMOUNT + ") FROM " +
+                    DatabaseHelper.TABLE_TRANSACTIONS, null);
+        }
+    }
+
+    // The same sum over REAL dollar amounts, as stored before the cents migration
+    @Test
+    public void sumAmounts_realDollars() {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        db.execSQL("CREATE TABLE IF NOT EXISTS amounts_real AS SELECT " + DatabaseHelper.COLUMN_AMOUNT +
+                " / 100.0 AS amount FROM " + DatabaseHelper.TABLE_TRANSACTIONS);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            try (Cursor cursor = db.rawQuery("SELECT SUM(amount) FROM amounts_real", null)) {
+                cursor.moveToFirst();
+                sink += (long) cursor.getDouble(0);
+            }
+        }
+    }
+
+    private long sumForType(SQLiteDatabase db, String type) {
+        String query = "SELECT SUM(" + DatabaseHelper.COLUMN_AMOUNT + ") FROM " + DatabaseHelper.TABLE_TRANSACTIONS +
+                " WHERE " + DatabaseHelper.COLUMN_USER_ID + " = ?" +
+                " AND " + DatabaseHelper.COLUMN_TYPE + " = '" + type + "'";
+        try (Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)})) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
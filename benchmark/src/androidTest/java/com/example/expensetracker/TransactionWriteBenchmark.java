@@ -0,0 +1,159 @@
+package com.example.expensetracker;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes and the scalar user lookups over 1k, 100k and 1M transactions,
+ * each next to the uncached form it replaced. Rows added by a benchmark
+ * are deleted again so every size keeps its seeded shape.
+ */
+@RunWith(Parameterized.class)
+public class TransactionWriteBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Parameterized.Parameters(name = "rows={0}")
+    public static Collection<Object[]> rowCounts() {
+        return Arrays.asList(new Object[][]{{1_000}, {100_000}, {1_000_000}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int rowCount;
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int categoryId;
+    private int today;
+    // Highest seeded transaction id; anything above it was added by the benchmark
+    private long lastSeededId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    public TransactionWriteBenchmark(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Before
+    public void setUp() {
+        databaseHelper = BenchmarkDatabases.get(rowCount);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+        categoryId = databaseHelper.getOrCreateCategory("Food", "Expense");
+        today = EpochDays.today();
+        lastSeededId = DatabaseUtils.longForQuery(databaseHelper.getReadableDatabase(),
+                "SELECT MAX(" + DatabaseHelper.COLUMN_TRANSACTION_ID + ") FROM " + DatabaseHelper.TABLE_TRANSACTIONS,
+                null);
+    }
+
+    @After
+    public void tearDown() {
+        deleteAddedRows();
+    }
+
+    @Test
+    public void addTransaction() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.addTransaction(userId, categoryId, "Expense", "Lunch", 1250, today);
+        }
+    }
+
+    // The ContentValues insert addTransaction used before the statement cache
+    @Test
+    public void addTransaction_contentValues() {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ContentValues values = new ContentValues();
+            values.put(DatabaseHelper.COLUMN_USER_ID, userId);
+            values.put(DatabaseHelper.COLUMN_CATEGORY_ID, categoryId);
+            values.put(DatabaseHelper.COLUMN_TYPE, "Expense");
+            values.put(DatabaseHelper.COLUMN_DESCRIPTION, "Lunch");
+            values.put(DatabaseHelper.COLUMN_AMOUNT, 1250L);
+            values.put(DatabaseHelper.COLUMN_DATE, today);
+            sink += db.insert(DatabaseHelper.TABLE_TRANSACTIONS, null, values);
+        }
+    }
+
+    // BATCH rows per iteration, one implicit transaction each
+    @Test
+    public void insert1000_singleRows() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < BATCH; i++) {
+                databaseHelper.addTransaction(userId, categoryId, "Expense", "Lunch", 1250, today);
+            }
+            state.pauseTiming();
+            deleteAddedRows();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void insert1000_bulk() {
+        List<Transaction> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Transaction(-1, userId, categoryId, "Expense", null, "Lunch", 1250, today));
+        }
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.bulkInsertTransactions(batch);
+            state.pauseTiming();
+            deleteAddedRows();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void getUserId() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.getUserId(BenchmarkDatabases.USERNAME);
+        }
+    }
+
+    // The rawQuery lookup getUserId used before the statement cache
+    @Test
+    public void getUserId_rawQuery() {
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            String query = "SELECT " + DatabaseHelper.COLUMN_USER_ID + " FROM " + DatabaseHelper.TABLE_USERS +
+                    " WHERE " + DatabaseHelper.COLUMN_USERNAME + " = ?";
+            try (Cursor cursor = db.rawQuery(query, new String[]{BenchmarkDatabases.USERNAME})) {
+                sink += cursor.moveToFirst() ? cursor.getInt(0) : -1;
+            }
+        }
+    }
+
+    @Test
+    public void isUsernameTaken() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sink += databaseHelper.isUsernameTaken(BenchmarkDatabases.USERNAME) ? 1 : 0;
+        }
+    }
+
+    private void deleteAddedRows() {
+        databaseHelper.getWritableDatabase().delete(DatabaseHelper.TABLE_TRANSACTIONS,
+                DatabaseHelper.COLUMN_TRANSACTION_ID + " > ?", new String[]{String.valueOf(lastSeededId)});
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Opening the database, and reading the first page while another thread
+ * keeps inserting, with write-ahead logging on and off.
+ */
+@RunWith(Parameterized.class)
+public class WalBenchmark {
+
+    private static final int ROW_COUNT = 10_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Parameterized.Parameters(name = "wal={0}")
+    public static Collection<Object[]> modes() {
+        return Arrays.asList(new Object[][]{{true}, {false}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final boolean wal;
+    private final String name;
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    // Keeps results alive so the work is not optimized away
+    private long sink;
+
+    public WalBenchmark(boolean wal) {
+        this.wal = wal;
+        this.name = "benchmark-wal-" + wal + ".db";
+    }
+
+    @Before
+    public void setUp() {
+        BenchmarkDatabases.context().deleteDatabase(name);
+        databaseHelper = open();
+        BenchmarkDatabases.seed(databaseHelper, ROW_COUNT);
+        userId = BenchmarkDatabases.userId(databaseHelper);
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+        BenchmarkDatabases.context().deleteDatabase(name);
+    }
+
+    @Test
+    public void openDatabase() {
+        databaseHelper.close();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            DatabaseHelper helper = open();
+            sink += helper.getReadableDatabase().getVersion();
+            state.pauseTiming();
+            helper.close();
+            state.resumeTiming();
+        }
+    }
+
+    @Test
+    public void readFirstPage_whileWriting() throws InterruptedException {
+        int categoryId = databaseHelper.getOrCreateCategory("Food", "Expense");
+        int today = EpochDays.today();
+        Thread writer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                databaseHelper.addTransaction(userId, categoryId, "Expense", "Lunch", 1250, today);
+            }
+        });
+        writer.start();
+        try {
+            BenchmarkState state = benchmarkRule.getState();
+            while (state.keepRunning()) {
+                sink += databaseHelper.getTransactionsPage(userId, 0, -1, PAGE_SIZE).size();
+            }
+        } finally {
+            writer.interrupt();
+            writer.join();
+        }
+    }
+
+    private DatabaseHelper open() {
+        DatabaseHelper helper = new DatabaseHelper(BenchmarkDatabases.context(), name);
+        // The constructor turns WAL on; it only takes effect when the file is opened
+        helper.setWriteAheadLoggingEnabled(wal);
+        return helper;
+    }
+}
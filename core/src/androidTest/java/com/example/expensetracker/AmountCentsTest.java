@@ -0,0 +1,88 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Amounts are stored as integer cents, so totals over any number of rows
+ * must match a plain long sum exactly. The million-row timing lives in the
+ * benchmark module; a few hundred rows are enough to check correctness.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AmountCentsTest {
+
+    private static final int ROW_COUNT = 500;
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void totals_areExactOverRandomTransactions() {
+        int foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        int salaryId = (int) databaseHelper.addCategory("Salary", "Income");
+
+        Random random = new Random(42);
+        long expectedIncome = 0, expectedExpense = 0;
+        List<Transaction> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            boolean income = random.nextBoolean();
+            // Up to $10,000.00, with arbitrary cents
+            long amountCents = 1 + random.nextInt(1_000_000);
+            int epochDay = EpochDays.of(2024, 1 + random.nextInt(12), 1 + random.nextInt(28));
+            if (income) {
+                expectedIncome += amountCents;
+                rows.add(new Transaction(-1, userId, salaryId, "Income", null, "Pay", amountCents, epochDay));
+            } else {
+                expectedExpense += amountCents;
+                rows.add(new Transaction(-1, userId, foodId, "Expense", null, "Meal", amountCents, epochDay));
+            }
+        }
+        databaseHelper.bulkInsertTransactions(rows);
+
+        UserBalance balance = databaseHelper.getUserBalance(userId);
+        assertEquals(expectedIncome, balance.getIncomeCents());
+        assertEquals(expectedExpense, balance.getExpenseCents());
+        assertEquals(ROW_COUNT, balance.getTransactionCount());
+        assertEquals(0, databaseHelper.verifyUserBalances());
+
+        TransactionSummary summary = databaseHelper.getSummary(userId, DatabaseHelper.SUMMARY_WINDOW_DAYS);
+        assertEquals(expectedIncome, summary.getLifetimeIncomeCents());
+        assertEquals(expectedExpense, summary.getLifetimeExpenseCents());
+
+        long monthlyIncome = 0, monthlyExpense = 0;
+        for (MonthlyCategoryTotal total : databaseHelper.getMonthlyBreakdown(userId, "2024-01", "2024-12")) {
+            if ("Income".equals(total.getType())) {
+                monthlyIncome += total.getTotalCents();
+            } else {
+                monthlyExpense += total.getTotalCents();
+            }
+        }
+        assertEquals(expectedIncome, monthlyIncome);
+        assertEquals(expectedExpense, monthlyExpense);
+    }
+}
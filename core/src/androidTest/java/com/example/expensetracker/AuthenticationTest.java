@@ -0,0 +1,119 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.DatabaseUtils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Sign-up through the UNIQUE username column, single-query login and the
+ * move from plaintext to hashed passwords.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AuthenticationTest {
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        // Far below the production cost so the tests stay fast
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void registerUser_reportsTakenUsernameWithoutSecondRow() {
+        long userId = databaseHelper.registerUser("Test", "User", "tester", "secret");
+        assertTrue(userId > 0);
+
+        assertEquals(DatabaseHelper.USERNAME_TAKEN, databaseHelper.registerUser("Other", null, "tester", "other"));
+        // The failed attempt leaves the original account untouched
+        assertEquals(userId, databaseHelper.authenticate("tester", "secret").get().getId());
+        assertFalse(databaseHelper.authenticate("tester", "other").isPresent());
+    }
+
+    @Test
+    public void authenticate_returnsIdAndDisplayName() {
+        long userId = databaseHelper.registerUser("Test", "User", "tester", "secret");
+        long noLastNameId = databaseHelper.registerUser("Solo", null, "solo", "secret");
+
+        Optional<User> user = databaseHelper.authenticate("tester", "secret");
+        assertTrue(user.isPresent());
+        assertEquals(userId, user.get().getId());
+        assertEquals("tester", user.get().getUsername());
+        assertEquals("Test User", user.get().getFullName());
+
+        assertEquals("Solo", databaseHelper.authenticate("solo", "secret").get().getFullName());
+        assertEquals(noLastNameId, databaseHelper.authenticate("solo", "secret").get().getId());
+    }
+
+    @Test
+    public void authenticate_isEmptyForUnknownUserOrWrongPassword() {
+        databaseHelper.registerUser("Test", "User", "tester", "secret");
+
+        assertFalse(databaseHelper.authenticate("tester", "wrong").isPresent());
+        assertFalse(databaseHelper.authenticate("nobody", "secret").isPresent());
+        // Usernames are matched exactly, as the UNIQUE constraint does
+        assertFalse(databaseHelper.authenticate("Tester", "secret").isPresent());
+    }
+
+    @Test
+    public void registerUser_storesSaltedHashNotPassword() {
+        databaseHelper.registerUser("Test", "User", "tester", "secret");
+        databaseHelper.registerUser("Other", "User", "other", "secret");
+
+        String tester = storedPassword("tester");
+        assertTrue(PasswordHasher.isHash(tester));
+        assertFalse(tester.contains("secret"));
+        // Same password, different salt
+        assertNotEquals(tester, storedPassword("other"));
+    }
+
+    @Test
+    public void authenticate_upgradesPlaintextPasswordOnLogin() {
+        // A row saved before passwords were hashed
+        databaseHelper.getWritableDatabase().execSQL("INSERT INTO " + DatabaseHelper.TABLE_USERS +
+                "(first_name, last_name, username, password) VALUES ('Old', 'User', 'legacy', 'secret')");
+
+        assertFalse(databaseHelper.authenticate("legacy", "wrong").isPresent());
+        assertEquals("secret", storedPassword("legacy"));
+
+        assertTrue(databaseHelper.authenticate("legacy", "secret").isPresent());
+        assertTrue(PasswordHasher.isHash(storedPassword("legacy")));
+        assertTrue(databaseHelper.authenticate("legacy", "secret").isPresent());
+    }
+
+    @Test
+    public void authenticate_rehashesWhenCostChanges() {
+        databaseHelper.registerUser("Test", "User", "tester", "secret");
+        String before = storedPassword("tester");
+
+        databaseHelper.setPasswordHasher(new PasswordHasher(2_000));
+        assertTrue(databaseHelper.authenticate("tester", "secret").isPresent());
+
+        String after = storedPassword("tester");
+        assertNotEquals(before, after);
+        assertFalse(new PasswordHasher(2_000).needsRehash(after));
+    }
+
+    private String storedPassword(String username) {
+        return DatabaseUtils.stringForQuery(databaseHelper.getReadableDatabase(),
+                "SELECT password FROM users WHERE username = ?", new String[]{username});
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Deleting and recategorizing many rows at once: only the user's rows are
+ * touched, and the summary tables and search index follow.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BatchEditTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int otherUserId;
+    private int foodId;
+    private int travelId;
+    private int salaryId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        otherUserId = (int) databaseHelper.registerUser("Other", "User", "other", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        travelId = (int) databaseHelper.addCategory("Travel", "Expense");
+        salaryId = (int) databaseHelper.addCategory("Salary", "Income");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    // More ids than fit in one statement
+    @Test
+    public void deleteTransactions_removesEveryChunk() {
+        int[] ids = addExpenses(userId, foodId, 1_201);
+        long kept = databaseHelper.addTransaction(userId, foodId, "Expense", "Kept", 700, EpochDays.today());
+
+        assertEquals(1_201, databaseHelper.deleteTransactions(userId, ids));
+
+        List<Transaction> left = databaseHelper.getTransactionsPage(userId, 0, -1, 50);
+        assertEquals(1, left.size());
+        assertEquals(kept, left.get(0).getId());
+        UserBalance balance = databaseHelper.getUserBalance(userId);
+        assertEquals(700, balance.getExpenseCents());
+    }
+
+    @Test
+    public void deleteTransactions_skipsOtherUsersRows() {
+        int[] mine = addExpenses(userId, foodId, 2);
+        int[] theirs = addExpenses(otherUserId, foodId, 2);
+
+        assertEquals(2, databaseHelper.deleteTransactions(userId, new int[]{mine[0], mine[1], theirs[0], theirs[1]}));
+        assertEquals(2, databaseHelper.getTransactionsPage(otherUserId, 0, -1, 50).size());
+    }
+
+    @Test
+    public void recategorizeTransactions_movesOnlyMatchingType() {
+        int today = EpochDays.today();
+        int[] expenses = addExpenses(userId, foodId, 3);
+        int salary = (int) databaseHelper.addTransaction(userId, salaryId, "Income", "Pay", 300_000, today);
+        int[] ids = {expenses[0], expenses[1], expenses[2], salary};
+
+        assertEquals(3, databaseHelper.recategorizeTransactions(userId, ids, travelId));
+
+        for (Transaction transaction : databaseHelper.getTransactionsPage(userId, 0, -1, 50)) {
+            if (transaction.getId() == salary) {
+                assertEquals("Salary", transaction.getCategoryName());
+            } else {
+                assertEquals("Travel", transaction.getCategoryName());
+            }
+        }
+        // The search index follows the new category name
+        assertEquals(3, databaseHelper.searchTransactions(userId, "travel", 50).size());
+        assertEquals(0, databaseHelper.searchTransactions(userId, "food", 50).size());
+    }
+
+    // SELECT ALL on a filtered list: rows are chosen by the filter, not by id
+    @Test
+    public void filteredEdits_reachEveryMatchingRow() {
+        int today = EpochDays.today();
+        addExpenses(userId, foodId, 3);
+        long old = databaseHelper.addTransaction(userId, foodId, "Expense", "Old lunch", 100, today - 100);
+        long salary = databaseHelper.addTransaction(userId, salaryId, "Income", "Pay", 300_000, today);
+        addExpenses(otherUserId, foodId, 2);
+
+        TransactionFilter everything = TransactionFilter.forUser(userId);
+        assertEquals(4, databaseHelper.recategorizeTransactions(everything, travelId));
+        assertEquals("Salary", databaseHelper.getTransactionsByIds(everything,
+                Collections.singletonList((int) salary)).get(0).getCategoryName());
+
+        TransactionFilter recent = new TransactionFilter.Builder(userId)
+                .setDateRange(today - 30, null)
+                .setType("Expense")
+                .build();
+        assertEquals(3, databaseHelper.deleteTransactions(recent));
+
+        List<Long> left = new ArrayList<>();
+        for (Transaction transaction : databaseHelper.getTransactionsPage(userId, 0, -1, 50)) {
+            left.add((long) transaction.getId());
+        }
+        assertEquals(Arrays.asList(salary, old), left);
+        assertEquals(2, databaseHelper.getTransactionsPage(otherUserId, 0, -1, 50).size());
+        assertEquals(100, databaseHelper.getUserBalance(userId).getExpenseCents());
+    }
+
+    @Test
+    public void batchEdits_notifyOncePerBatch() {
+        int[] ids = addExpenses(userId, foodId, 3);
+        List<Integer> changed = new ArrayList<>();
+        InvalidationTracker.Observer observer = (changedUserId, version, transactionId) -> changed.add(transactionId);
+        databaseHelper.getInvalidationTracker().addObserver(observer);
+        try {
+            databaseHelper.recategorizeTransactions(userId, ids, travelId);
+            assertEquals(Collections.singletonList(InvalidationTracker.ALL_ROWS), changed);
+
+            changed.clear();
+            databaseHelper.deleteTransactions(userId, ids);
+            assertEquals(Collections.singletonList(InvalidationTracker.ALL_ROWS), changed);
+
+            // Nothing left to delete, so nothing to report
+            changed.clear();
+            assertEquals(0, databaseHelper.deleteTransactions(userId, ids));
+            assertTrue(changed.isEmpty());
+        } finally {
+            databaseHelper.getInvalidationTracker().removeObserver(observer);
+        }
+    }
+
+    private int[] addExpenses(int ownerId, int categoryId, int count) {
+        int today = EpochDays.today();
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (int) databaseHelper.addTransaction(ownerId, categoryId, "Expense", "Imported " + i, 100, today);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the per-user transaction queries are answered from the indexes
+ * instead of a full table scan. The plans are taken for the SQL strings
+ * DatabaseHelper runs, so a change to a query is checked here too.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseIndexTest {
+
+    private DatabaseHelper databaseHelper;
+    private SQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        db = databaseHelper.getWritableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void allTransactions_usesUserDateIndex() {
+        String plan = explain(DatabaseHelper.SQL_ALL_TRANSACTIONS, "1");
+
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void latestTransactions_usesUserDateIndex() {
+        String plan = explain(DatabaseHelper.SQL_LATEST_TRANSACTIONS, "1", "3");
+
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void transactionsPage_seeksUserDateIndex() {
+        List<String> args = new ArrayList<>();
+        String query = DatabaseHelper.buildPageQuery(TransactionFilter.forUser(1), 20103, 42, 50, args);
+        String plan = explain(query, args.toArray(new String[0]));
+
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE + " (user_id=? AND date<?)"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+
+        args.clear();
+        query = DatabaseHelper.buildPageQuery(TransactionFilter.forUser(1), 0, -1, 50, args);
+        String firstPage = explain(query, args.toArray(new String[0]));
+        assertTrue(firstPage, firstPage.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE + " (user_id=?)"));
+        assertFalse(firstPage, firstPage.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void lifetimeTotals_usesCoveringTypeIndex() {
+        String plan = explain(DatabaseHelper.SQL_TOTAL_FOR_TYPE, "1", "Income");
+
+        assertTrue(plan, plan.contains("COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_USER_TYPE_DATE));
+    }
+
+    @Test
+    public void last30DayTotals_seeksCoveringTypeIndex() {
+        String plan = explain(DatabaseHelper.SQL_TOTAL_FOR_TYPE_SINCE, "1", "Expense", "20103");
+
+        assertTrue(plan, plan.contains("COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_USER_TYPE_DATE +
+                " (user_id=? AND type=? AND date>?)"));
+    }
+
+    @Test
+    public void rangeTotals_seeksCoveringTypeIndexPerType() {
+        String plan = explain(DatabaseHelper.SQL_TOTALS_IN_RANGE, "1", "20000", "20103");
+
+        assertTrue(plan, plan.contains("COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_USER_TYPE_DATE +
+                " (user_id=? AND type=? AND date>? AND date<?)"));
+    }
+
+    @Test
+    public void rangeTransactions_seeksUserDateIndex() {
+        String plan = explain(DatabaseHelper.SQL_TRANSACTIONS_IN_RANGE, "1", "20000", "20103");
+
+        assertTrue(plan, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE + " (user_id=? AND date>? AND date<?)"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void summary_usesCoveringTypeIndexWithoutSort() {
+        String plan = explain(DatabaseHelper.SQL_SUMMARY, "20103", "1");
+
+        assertTrue(plan, plan.contains("COVERING INDEX " + DatabaseHelper.INDEX_TRANSACTIONS_USER_TYPE_DATE));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    private String explain(String query, String... args) {
+        StringBuilder plan = new StringBuilder();
+        Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + query, args);
+        int detailIndex = cursor.getColumnIndexOrThrow("detail");
+        while (cursor.moveToNext()) {
+            plan.append(cursor.getString(detailIndex)).append('\n');
+        }
+        cursor.close();
+        return plan.toString();
+    }
+}
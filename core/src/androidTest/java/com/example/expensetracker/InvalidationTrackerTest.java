@@ -0,0 +1,118 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes bump the owner's version and name the changed row; writes that
+ * change nothing stay silent.
+ */
+@RunWith(AndroidJUnit4.class)
+public class InvalidationTrackerTest {
+
+    private DatabaseHelper databaseHelper;
+    private InvalidationTracker tracker;
+    private int userId;
+    private int otherUserId;
+    private int foodId;
+    // "userId:transactionId" for every notification
+    private final List<String> changes = new ArrayList<>();
+    private final InvalidationTracker.Observer observer =
+            (changedUserId, version, transactionId) -> changes.add(changedUserId + ":" + transactionId);
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        otherUserId = (int) databaseHelper.registerUser("Other", "User", "other", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        tracker = databaseHelper.getInvalidationTracker();
+        tracker.addObserver(observer);
+    }
+
+    @After
+    public void tearDown() {
+        tracker.removeObserver(observer);
+        databaseHelper.close();
+    }
+
+    @Test
+    public void writes_bumpOnlyTheOwnersVersion() {
+        int today = EpochDays.today();
+        assertEquals(0, tracker.getVersion(userId));
+
+        int id = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 1250, today);
+        assertEquals(1, tracker.getVersion(userId));
+        databaseHelper.updateTransaction(id, foodId, "Expense", "Dinner", 2000, today);
+        assertEquals(2, tracker.getVersion(userId));
+        databaseHelper.deleteTransaction(id);
+        assertEquals(3, tracker.getVersion(userId));
+
+        assertEquals(0, tracker.getVersion(otherUserId));
+        assertEquals(Arrays.asList(userId + ":" + id, userId + ":" + id, userId + ":" + id), changes);
+    }
+
+    @Test
+    public void writesThatChangeNothing_doNotNotify() {
+        int today = EpochDays.today();
+        int id = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 1250, today);
+        databaseHelper.deleteTransaction(id);
+        changes.clear();
+
+        assertEquals(0, databaseHelper.deleteTransaction(id));
+        assertEquals(0, databaseHelper.updateTransaction(id, foodId, "Expense", "Lunch", 900, today));
+        // Rejected by CHECK(amount > 0)
+        assertEquals(-1, databaseHelper.addTransaction(userId, foodId, "Expense", "Bad", 0, today));
+
+        assertTrue(changes.isEmpty());
+        assertEquals(2, tracker.getVersion(userId));
+    }
+
+    @Test
+    public void bulkInsert_notifiesOncePerUser() {
+        int today = EpochDays.today();
+        List<Transaction> rows = Arrays.asList(
+                new Transaction(0, userId, foodId, "Expense", null, "A", 100, today),
+                new Transaction(0, userId, foodId, "Expense", null, "B", 200, today),
+                new Transaction(0, otherUserId, foodId, "Expense", null, "C", 300, today));
+
+        assertEquals(3, databaseHelper.bulkInsertTransactions(rows, 2));
+
+        Collections.sort(changes);
+        List<String> expected = new ArrayList<>(Arrays.asList(
+                userId + ":" + InvalidationTracker.ALL_ROWS, otherUserId + ":" + InvalidationTracker.ALL_ROWS));
+        Collections.sort(expected);
+        assertEquals(expected, changes);
+        assertEquals(1, tracker.getVersion(userId));
+    }
+
+    @Test
+    public void getTransactionsByIds_skipsDeletedAndOtherUsersRows() {
+        int today = EpochDays.today();
+        int kept = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Kept", 100, today);
+        int deleted = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Gone", 200, today);
+        int foreign = (int) databaseHelper.addTransaction(otherUserId, foodId, "Expense", "Theirs", 300, today);
+        databaseHelper.deleteTransaction(deleted);
+
+        List<Transaction> rows = databaseHelper.getTransactionsByIds(userId, Arrays.asList(kept, deleted, foreign));
+        assertEquals(1, rows.size());
+        assertEquals(kept, rows.get(0).getId());
+        assertEquals("Food", rows.get(0).getCategoryName());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteConstraintException;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Opens a version 1 database, as the first release created it, through
+ * DatabaseHelper, so SQLiteOpenHelper runs every migration in one onUpgrade,
+ * and checks that every row survives.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String DATABASE_NAME = "migration-test.db";
+
+    private Context context;
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        context.deleteDatabase(DATABASE_NAME);
+
+        // The version 1 schema, with rows from every table
+        SQLiteDatabase v1 = context.openOrCreateDatabase(DATABASE_NAME, Context.MODE_PRIVATE, null);
+        v1.execSQL("CREATE TABLE users(user_id INTEGER PRIMARY KEY AUTOINCREMENT, first_name TEXT NOT NULL," +
+                " last_name TEXT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL)");
+        v1.execSQL("CREATE TABLE categories(category_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " name TEXT NOT NULL, type TEXT NOT NULL CHECK(type IN ('Expense', 'Income')))");
+        v1.execSQL("CREATE TABLE transactions(transaction_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                " user_id INTEGER NOT NULL, category_id INTEGER NOT NULL," +
+                " type TEXT NOT NULL CHECK(type IN ('Expense', 'Income')), description TEXT," +
+                " amount REAL NOT NULL CHECK(amount > 0), date TEXT NOT NULL," +
+                " FOREIGN KEY(user_id) REFERENCES users(user_id) ON DELETE CASCADE," +
+                " FOREIGN KEY(category_id) REFERENCES categories(category_id))");
+        v1.execSQL("INSERT INTO users VALUES (1, 'Ann', 'Lee', 'ann', 'secret'), (2, 'Bo', NULL, 'bo', 'hunter2')");
+        // 'FOOD' duplicates 'Food' apart from case; the same name with another type is a separate category
+        v1.execSQL("INSERT INTO categories VALUES (1, 'Food', 'Expense'), (2, 'Salary', 'Income')," +
+                " (3, 'Travel', 'Expense'), (4, 'FOOD', 'Expense'), (5, 'Food', 'Income')");
+        v1.execSQL("INSERT INTO transactions VALUES" +
+                " (1, 1, 2, 'Income', 'March pay', 2500.5, '2025-03-01')," +
+                " (2, 1, 1, 'Expense', 'Coffee', 3.2, '2025-03-02')," +
+                " (3, 1, 3, 'Expense', NULL, 120, '2025-02-14')," +
+                " (4, 2, 1, 'Expense', 'Lunch', 12.75, '2025-03-02')," +
+                " (5, 2, 4, 'Expense', 'Snack', 4.5, '2025-03-03')," +
+                " (7, 1, 1, 'Expense', 'Deleted', 5, '2025-03-04')");
+        v1.execSQL("DELETE FROM transactions WHERE transaction_id = 7");
+        v1.setVersion(1);
+        v1.close();
+
+        databaseHelper = new DatabaseHelper(context, DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void upgradeFromVersion1_keepsEveryRow() {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+
+        assertEquals(DatabaseHelper.DATABASE_VERSION, db.getVersion());
+        assertEquals("1|Ann|Lee|ann|secret\n2|Bo|null|bo|hunter2\n",
+                rows(db, "SELECT user_id, first_name, last_name, username, password FROM users ORDER BY user_id"));
+        assertEquals("1|Food|Expense\n2|Salary|Income\n3|Travel|Expense\n5|Food|Income\n",
+                rows(db, "SELECT category_id, name, type FROM categories ORDER BY category_id"));
+        assertEquals("1|1|2|Income|March pay|250050|" + EpochDays.of(2025, 3, 1) + "\n" +
+                        "2|1|1|Expense|Coffee|320|" + EpochDays.of(2025, 3, 2) + "\n" +
+                        "3|1|3|Expense|null|12000|" + EpochDays.of(2025, 2, 14) + "\n" +
+                        "4|2|1|Expense|Lunch|1275|" + EpochDays.of(2025, 3, 2) + "\n" +
+                        "5|2|1|Expense|Snack|450|" + EpochDays.of(2025, 3, 3) + "\n",
+                rows(db, "SELECT transaction_id, user_id, category_id, type, description, amount, date" +
+                        " FROM transactions ORDER BY transaction_id"));
+
+        // Version 2: the per-user indexes
+        assertEquals(2, longFor(db, "SELECT COUNT(*) FROM sqlite_master WHERE type = 'index' AND name IN ('" +
+                DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE + "', '" +
+                DatabaseHelper.INDEX_TRANSACTIONS_USER_TYPE_DATE + "')"));
+
+        // Version 3: balances built from the existing rows
+        assertEquals("1|250050|12320|3\n2|0|1725|2\n",
+                rows(db, "SELECT user_id, income, expense, transaction_count FROM user_balances ORDER BY user_id"));
+
+        // Version 4: the monthly rollup built from the existing rows
+        assertEquals("1|2025-02|3|Expense|12000|1\n" +
+                        "1|2025-03|1|Expense|320|1\n" +
+                        "1|2025-03|2|Income|250050|1\n" +
+                        "2|2025-03|1|Expense|1725|2\n",
+                rows(db, "SELECT user_id, year_month, category_id, type, total, transaction_count" +
+                        " FROM monthly_category_totals ORDER BY user_id, year_month, category_id"));
+
+        // Version 5: 'FOOD' merged into 'Food' (above) and no case variant can come back
+        try {
+            db.execSQL("INSERT INTO categories(name, type) VALUES ('fOOD', 'Expense')");
+            fail("Duplicate category accepted after the merge");
+        } catch (SQLiteConstraintException expected) {
+            // expected
+        }
+
+        // Versions 6 and 7: amounts and dates above are integers, and so are the summary totals
+        assertEquals("integer", DatabaseUtils.stringForQuery(db,
+                "SELECT DISTINCT typeof(amount) FROM transactions", null));
+        assertEquals("integer", DatabaseUtils.stringForQuery(db,
+                "SELECT DISTINCT typeof(date) FROM transactions", null));
+
+        // Version 8: the search index built from the existing rows, with merged category names
+        assertEquals("1|March pay|Salary\n2|Coffee|Food\n3|null|Travel\n4|Lunch|Food\n5|Snack|Food\n",
+                rows(db, "SELECT docid, description, category FROM transactions_fts ORDER BY docid"));
+        assertEquals(2, longFor(db, "SELECT docid FROM transactions_fts WHERE transactions_fts MATCH 'cof*'"));
+        assertEquals(3, longFor(db, "SELECT COUNT(*) FROM transactions_fts WHERE transactions_fts MATCH 'food'"));
+    }
+
+    @Test
+    public void upgradedTriggers_readEpochDays() {
+        // Ids of rows deleted before the upgrade are not handed out again
+        long dinnerId = databaseHelper.addTransaction(2, 1, "Expense", "Dinner", 500, EpochDays.of(2025, 4, 10));
+        assertEquals(8, dinnerId);
+
+        SQLiteDatabase db = databaseHelper.getReadableDatabase();
+        assertEquals("2|2025-03|1|Expense|1725|2\n2|2025-04|1|Expense|500|1\n",
+                rows(db, "SELECT user_id, year_month, category_id, type, total, transaction_count" +
+                        " FROM monthly_category_totals WHERE user_id = 2 ORDER BY year_month"));
+        assertEquals("2|0|2225|3\n",
+                rows(db, "SELECT user_id, income, expense, transaction_count FROM user_balances WHERE user_id = 2"));
+        assertEquals(8, longFor(db, "SELECT docid FROM transactions_fts WHERE transactions_fts MATCH 'din*'"));
+    }
+
+    @Test
+    public void getOrCreateCategory_foldsCaseLikeNocase() {
+        assertEquals(1, databaseHelper.getOrCreateCategory("FOOD", "Expense"));
+        assertEquals(1, databaseHelper.getOrCreateCategory("food", "Expense"));
+        assertEquals(5, databaseHelper.getOrCreateCategory("fOOD", "Income"));
+        assertEquals(-1, databaseHelper.addCategory("fOOd", "Expense"));
+
+        // NOCASE only folds ASCII, so these are two categories
+        int lowerId = databaseHelper.getOrCreateCategory("Caf\u00e9", "Expense");
+        assertNotEquals(lowerId, databaseHelper.getOrCreateCategory("CAF\u00c9", "Expense"));
+    }
+
+    // Every row as "a|b|c" on its own line
+    private static String rows(SQLiteDatabase db, String query) {
+        StringBuilder rows = new StringBuilder();
+        Cursor cursor = db.rawQuery(query, null);
+        while (cursor.moveToNext()) {
+            for (int i = 0; i < cursor.getColumnCount(); i++) {
+                if (i > 0) rows.append('|');
+                rows.append(cursor.getString(i));
+            }
+            rows.append('\n');
+        }
+        cursor.close();
+        return rows.toString();
+    }
+
+    private static long longFor(SQLiteDatabase db, String query) {
+        return DatabaseUtils.longForQuery(db, query, null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The monthly_category_totals triggers must move a row between buckets when
+ * its month or category changes, and drop a bucket once it is empty. After
+ * every write the rollup is compared with a GROUP BY over transactions.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MonthlyCategoryTotalsTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int foodId;
+    private int travelId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        travelId = (int) databaseHelper.addCategory("Travel", "Expense");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void update_movesRowToOtherMonth() {
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 2_500, EpochDays.of(2025, 3, 2));
+        int dinnerId = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Dinner", 4_000,
+                EpochDays.of(2025, 3, 31));
+        assertMatchesTransactions();
+
+        databaseHelper.updateTransaction(dinnerId, foodId, "Expense", "Dinner", 4_000, EpochDays.of(2025, 4, 1));
+
+        assertMatchesTransactions();
+        assertEquals(rows("2025-03 Food Expense 2500 1", "2025-04 Food Expense 4000 1"), breakdown());
+    }
+
+    @Test
+    public void update_movesRowToOtherCategory() {
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 2_500, EpochDays.of(2025, 3, 2));
+        int taxiId = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Taxi", 1_800,
+                EpochDays.of(2025, 3, 5));
+        assertMatchesTransactions();
+
+        databaseHelper.updateTransaction(taxiId, travelId, "Expense", "Taxi", 1_800, EpochDays.of(2025, 3, 5));
+
+        assertMatchesTransactions();
+        assertEquals(rows("2025-03 Food Expense 2500 1", "2025-03 Travel Expense 1800 1"), breakdown());
+    }
+
+    @Test
+    public void delete_dropsBucketWithItsLastRow() {
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 2_500, EpochDays.of(2025, 3, 2));
+        int trainId = (int) databaseHelper.addTransaction(userId, travelId, "Expense", "Train", 6_000,
+                EpochDays.of(2025, 3, 9));
+        assertMatchesTransactions();
+
+        databaseHelper.deleteTransaction(trainId);
+
+        assertMatchesTransactions();
+        assertEquals(rows("2025-03 Food Expense 2500 1"), breakdown());
+    }
+
+    // The rollup holds exactly the buckets a GROUP BY over the raw rows gives
+    private void assertMatchesTransactions() {
+        List<String> expected = new ArrayList<>();
+        Cursor cursor = databaseHelper.getReadableDatabase().rawQuery(
+                "SELECT strftime('%Y-%m', t.date * 86400, 'unixepoch'), c.name, t.type, SUM(t.amount), COUNT(*)" +
+                        " FROM transactions t INNER JOIN categories c ON t.category_id = c.category_id" +
+                        " WHERE t.user_id = ? GROUP BY 1, t.category_id, 3",
+                new String[]{String.valueOf(userId)});
+        while (cursor.moveToNext()) {
+            expected.add(cursor.getString(0) + " " + cursor.getString(1) + " " + cursor.getString(2) + " " +
+                    cursor.getLong(3) + " " + cursor.getInt(4));
+        }
+        cursor.close();
+        Collections.sort(expected);
+        assertEquals(expected, breakdown());
+    }
+
+    private List<String> breakdown() {
+        List<String> rows = new ArrayList<>();
+        for (MonthlyCategoryTotal total : databaseHelper.getMonthlyBreakdown(userId, "0000-00", "9999-99")) {
+            rows.add(total.getYearMonth() + " " + total.getCategoryName() + " " + total.getType() + " " +
+                    total.getTotalCents() + " " + total.getTransactionCount());
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private static List<String> rows(String... rows) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, rows);
+        return list;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * The scalar queries and transaction writes reuse compiled statements, so
+ * bindings from one call must never leak into the next.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StatementCacheTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int foodId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void scalarQueries_answerEachCallFromItsOwnArguments() {
+        assertEquals(userId, databaseHelper.getUserId("tester"));
+        assertEquals(-1, databaseHelper.getUserId("nobody"));
+        assertTrue(databaseHelper.isUsernameTaken("tester"));
+        assertFalse(databaseHelper.isUsernameTaken("nobody"));
+
+        int today = EpochDays.today();
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 1250, today);
+        databaseHelper.addTransaction(userId, foodId, "Expense", null, 750, today - 90);
+
+        long[] totals = databaseHelper.getLifetimeTotals(userId);
+        assertEquals(0, totals[0]);
+        assertEquals(2000, totals[1]);
+        assertEquals(1250, databaseHelper.getTotalExpenseLast30Days(userId));
+        assertEquals(0, databaseHelper.getTotalIncomeLast30Days(userId));
+    }
+
+    @Test
+    public void writes_reuseStatementsWithoutStaleBindings() {
+        int today = EpochDays.today();
+        long first = databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 1250, today);
+        long second = databaseHelper.addTransaction(userId, foodId, "Expense", null, 500, today);
+        assertTrue(first > 0 && second > first);
+        // Rejected by CHECK(amount > 0) instead of throwing
+        assertEquals(-1, databaseHelper.addTransaction(userId, foodId, "Expense", "Bad", 0, today));
+
+        assertEquals(1, databaseHelper.updateTransaction((int) first, foodId, "Expense", null, 900, today));
+        assertEquals(1, databaseHelper.deleteTransaction((int) second));
+        assertEquals(0, databaseHelper.deleteTransaction((int) second));
+
+        Transaction updated = databaseHelper.getTransactionsPage(userId, 0, -1, 10).get(0);
+        assertEquals(first, updated.getId());
+        assertNull(updated.getDescription());
+        assertEquals(900, databaseHelper.getLifetimeTotals(userId)[1]);
+        assertEquals(0, databaseHelper.verifyUserBalances());
+    }
+
+    @Test
+    public void reopenedDatabase_compilesFreshStatements() {
+        assertTrue(databaseHelper.isUsernameTaken("tester"));
+        databaseHelper.close();
+
+        // A new in-memory database is created on the next access
+        assertFalse(databaseHelper.isUsernameTaken("tester"));
+        assertEquals(-1, databaseHelper.getUserId("tester"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The CSV importer must insert every valid line, in batches, and skip the rest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionCsvImporterTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void import_insertsValidLinesAndSkipsMalformed() throws IOException {
+        String csv = "date,type,category,description,amount\n" +
+                "2025-03-01,Income,Salary,March,1000\n" +
+                "2025-03-02,expense,Food,\"Lunch, with \"\"team\"\"\",25.50\n" +
+                "2025-03-03,Expense,Food,Dinner,40\n" +
+                "not-a-date,Expense,Food,Broken,10\n" +
+                "2025-03-04,Expense,Food,Negative,-5\n" +
+                "\n" +
+                "2025-03-05,Transfer,Bank,Unknown type,10\n";
+
+        // Batch size 2 forces several commits
+        TransactionCsvImporter importer = new TransactionCsvImporter(databaseHelper, 2);
+        int imported = importer.importCsv(userId, new StringReader(csv));
+
+        assertEquals(3, imported);
+        assertEquals(3, importer.getSkippedLines());
+
+        UserBalance balance = databaseHelper.getUserBalance(userId);
+        assertEquals(100000, balance.getIncomeCents());
+        assertEquals(6550, balance.getExpenseCents());
+        assertEquals(3, balance.getTransactionCount());
+
+        List<Transaction> latest = DatabaseHelper.readTransactions(databaseHelper.getLatestTransactions(userId, 3));
+        assertEquals("Lunch, with \"team\"", latest.get(1).getDescription());
+        assertEquals("Expense", latest.get(1).getType());
+    }
+}
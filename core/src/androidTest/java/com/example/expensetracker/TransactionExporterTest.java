@@ -0,0 +1,120 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Exported files must contain exactly the rows in the database, across chunk boundaries.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionExporterTest {
+
+    // Small chunks so the test crosses several page boundaries, including same-day ties
+    private static final int CHUNK_SIZE = 7;
+    private static final int ROW_COUNT = 50;
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        int otherUserId = (int) databaseHelper.registerUser("Other", "User", "other", "secret");
+        int foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        int salaryId = (int) databaseHelper.addCategory("Salary", "Income");
+
+        for (int i = 0; i < ROW_COUNT; i++) {
+            int epochDay = EpochDays.of(2025, 3, 1 + i % 10);
+            if (i % 5 == 0) {
+                databaseHelper.addTransaction(userId, salaryId, "Income", "Pay, part \"" + i + "\"", 10000 + i, epochDay);
+            } else {
+                databaseHelper.addTransaction(userId, foodId, "Expense", "Meal " + i, i * 100 + 25, epochDay);
+            }
+        }
+        databaseHelper.addTransaction(otherUserId, foodId, "Expense", "Not mine", 500, EpochDays.of(2025, 3, 1));
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void csvExport_matchesDatabase() throws Exception {
+        StringWriter out = new StringWriter();
+        int written = new TransactionExporter(databaseHelper, CHUNK_SIZE)
+                .export(userId, out, TransactionExporter.Format.CSV);
+
+        assertEquals(ROW_COUNT, written);
+
+        List<String> exported = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(out.toString()));
+        assertEquals(TransactionExporter.CSV_HEADER, reader.readLine());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            List<String> fields = TransactionCsvImporter.parseLine(line);
+            exported.add(String.join("|", fields));
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (Transaction t : databaseHelper.getTransactionsPage(userId, 0, -1, Integer.MAX_VALUE)) {
+            expected.add(EpochDays.toIsoDate(t.getEpochDay()) + "|" + t.getType() + "|" + t.getCategoryName() + "|" +
+                    t.getDescription() + "|" + Money.format(t.getAmountCents()));
+        }
+
+        // Same order as the newest-first keyset query, no duplicates or gaps
+        assertEquals(expected, exported);
+    }
+
+    @Test
+    public void jsonExport_matchesDatabase() throws Exception {
+        StringWriter out = new StringWriter();
+        int written = new TransactionExporter(databaseHelper, CHUNK_SIZE)
+                .export(userId, out, TransactionExporter.Format.JSON);
+
+        JSONArray array = new JSONArray(out.toString());
+        assertEquals(ROW_COUNT, written);
+        assertEquals(ROW_COUNT, array.length());
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject row = array.getJSONObject(i);
+            List<Transaction> match = DatabaseHelper.readTransactions(
+                    databaseHelper.getTransactionById(row.getInt("id")));
+            assertEquals(1, match.size());
+
+            Transaction t = match.get(0);
+            assertEquals(userId, t.getUserId());
+            assertEquals(EpochDays.toIsoDate(t.getEpochDay()), row.getString("date"));
+            assertEquals(t.getType(), row.getString("type"));
+            assertEquals(t.getCategoryName(), row.getString("category"));
+            assertEquals(t.getDescription(), row.getString("description"));
+            assertEquals(t.getAmountCents(), Money.parseCents(row.getString("amount")));
+            ids.add(t.getId());
+        }
+
+        // Every row exported exactly once
+        assertEquals(ROW_COUNT, ids.size());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Filtered pages and totals, and the plans SQLite picks for every
+ * combination of filter conditions.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionFilterTest {
+
+    private DatabaseHelper databaseHelper;
+    private SQLiteDatabase db;
+    private int userId;
+    private int foodId;
+    private int travelId;
+    private int salaryId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+        db = databaseHelper.getWritableDatabase();
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        travelId = (int) databaseHelper.addCategory("Travel", "Expense");
+        salaryId = (int) databaseHelper.addCategory("Salary", "Income");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void page_appliesEveryCondition() {
+        int today = EpochDays.today();
+        long coffee = databaseHelper.addTransaction(userId, foodId, "Expense", "Coffee", 450, today);
+        long dinner = databaseHelper.addTransaction(userId, foodId, "Expense", "Dinner", 4_500, today - 3);
+        long train = databaseHelper.addTransaction(userId, travelId, "Expense", "Train", 2_000, today - 10);
+        long salary = databaseHelper.addTransaction(userId, salaryId, "Income", "Salary", 300_000, today - 10);
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Old lunch", 1_200, today - 100);
+
+        TransactionFilter lastMonth = new TransactionFilter.Builder(userId)
+                .setDateRange(today - 30, today)
+                .build();
+        assertEquals(ids(coffee, dinner, salary, train), idsOf(lastMonth));
+
+        assertEquals(ids(coffee, dinner, train), idsOf(lastMonth.toBuilder().setType("Expense").build()));
+        assertEquals(ids(coffee, dinner), idsOf(lastMonth.toBuilder()
+                .setCategoryIds(Collections.singletonList(foodId)).build()));
+        assertEquals(ids(dinner, train), idsOf(lastMonth.toBuilder()
+                .setType("Expense")
+                .setAmountRange(1_000L, 5_000L)
+                .build()));
+        assertEquals(ids(train), idsOf(lastMonth.toBuilder()
+                .setCategoryIds(Arrays.asList(travelId, salaryId))
+                .setAmountRange(null, 10_000L)
+                .build()));
+    }
+
+    @Test
+    public void page_continuesAfterLastRowWithinFilter() {
+        int today = EpochDays.today();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, databaseHelper.addTransaction(userId, foodId, "Expense", "Snack", 100, today));
+            databaseHelper.addTransaction(userId, travelId, "Expense", "Bus", 100, today);
+        }
+        TransactionFilter food = new TransactionFilter.Builder(userId)
+                .setCategoryIds(Collections.singletonList(foodId))
+                .build();
+
+        List<Transaction> first = databaseHelper.getTransactionsPage(food, 0, -1, 3);
+        Transaction last = first.get(first.size() - 1);
+        List<Transaction> second = databaseHelper.getTransactionsPage(food, last.getEpochDay(), last.getId(), 3);
+
+        List<Long> all = toIds(first);
+        all.addAll(toIds(second));
+        assertEquals(expected, all);
+    }
+
+    @Test
+    public void totals_coverOnlyFilteredRows() {
+        int today = EpochDays.today();
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Coffee", 450, today);
+        databaseHelper.addTransaction(userId, travelId, "Expense", "Train", 2_000, today);
+        databaseHelper.addTransaction(userId, salaryId, "Income", "Salary", 300_000, today);
+        databaseHelper.addTransaction(userId, salaryId, "Income", "Old salary", 280_000, today - 100);
+
+        TransactionFilter recent = new TransactionFilter.Builder(userId).setDateRange(today - 30, null).build();
+        assertArrayEquals(new long[]{300_000, 2_450}, databaseHelper.getTotals(recent));
+
+        TransactionFilter travel = recent.toBuilder().setCategoryIds(Collections.singletonList(travelId)).build();
+        assertArrayEquals(new long[]{0, 2_000}, databaseHelper.getTotals(travel));
+    }
+
+    @Test
+    public void byIds_dropsRowsOutsideFilter() {
+        int today = EpochDays.today();
+        long coffee = databaseHelper.addTransaction(userId, foodId, "Expense", "Coffee", 450, today);
+        long salary = databaseHelper.addTransaction(userId, salaryId, "Income", "Salary", 300_000, today);
+        TransactionFilter expenses = new TransactionFilter.Builder(userId).setType("Expense").build();
+
+        List<Transaction> rows = databaseHelper.getTransactionsByIds(expenses,
+                Arrays.asList((int) coffee, (int) salary));
+        assertEquals(ids(coffee), toIds(rows));
+    }
+
+    @Test
+    public void build_rejectsInvertedRanges() {
+        try {
+            new TransactionFilter.Builder(userId).setDateRange(20_010, 20_000).build();
+            fail("Inverted date range accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            new TransactionFilter.Builder(userId).setAmountRange(500L, 100L).build();
+            fail("Inverted amount range accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        assertTrue(TransactionFilter.forUser(userId).isUnfiltered());
+        assertFalse(new TransactionFilter.Builder(userId).setType("Income").build().isUnfiltered());
+    }
+
+    // Every mix of date, type, category and amount conditions, on the first and a later page
+    @Test
+    public void everyCombination_seeksUserDateIndexWithoutSort() {
+        for (int mask = 0; mask < 16; mask++) {
+            TransactionFilter.Builder builder = new TransactionFilter.Builder(userId);
+            if ((mask & 1) != 0) builder.setDateRange(20_000, 20_103);
+            if ((mask & 2) != 0) builder.setType("Expense");
+            if ((mask & 4) != 0) builder.setCategoryIds(Arrays.asList(foodId, travelId));
+            if ((mask & 8) != 0) builder.setAmountRange(1_000L, 50_000L);
+            TransactionFilter filter = builder.build();
+
+            for (boolean laterPage : new boolean[]{false, true}) {
+                List<String> args = new ArrayList<>();
+                String query = laterPage
+                        ? DatabaseHelper.buildPageQuery(filter, 20_050, 42, 50, args)
+                        : DatabaseHelper.buildPageQuery(filter, 0, -1, 50, args);
+                String plan = explain(query, args.toArray(new String[0]));
+                String message = "mask=" + mask + " laterPage=" + laterPage + "\n" + plan;
+                assertTrue(message, plan.contains(DatabaseHelper.INDEX_TRANSACTIONS_USER_DATE + " (user_id=?"));
+                assertFalse(message, plan.contains("TEMP B-TREE"));
+            }
+        }
+    }
+
+    private List<Long> idsOf(TransactionFilter filter) {
+        return toIds(databaseHelper.getTransactionsPage(filter, 0, -1, 50));
+    }
+
+    private String explain(String query, String... args) {
+        StringBuilder plan = new StringBuilder();
+        Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + query, args);
+        int detailIndex = cursor.getColumnIndexOrThrow("detail");
+        while (cursor.moveToNext()) {
+            plan.append(cursor.getString(detailIndex)).append('\n');
+        }
+        cursor.close();
+        return plan.toString();
+    }
+
+    private static List<Long> toIds(List<Transaction> transactions) {
+        List<Long> ids = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            ids.add((long) transaction.getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(long... ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
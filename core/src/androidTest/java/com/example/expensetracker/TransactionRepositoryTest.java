@@ -0,0 +1,117 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives the repository from the main thread, the way the activities do,
+ * and checks that the database itself is only ever opened off the main looper.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionRepositoryTest {
+
+    private RecordingDatabaseHelper databaseHelper;
+    private TransactionRepository repository;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new RecordingDatabaseHelper(context);
+        repository = new TransactionRepository(databaseHelper);
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void screenQueries_neverTouchDatabaseOnMainLooper() throws Exception {
+        CountDownLatch registered = new CountDownLatch(1);
+        onMainThread(() -> repository.registerUser("Test", "User", "tester", "secret",
+                result -> registered.countDown()));
+        assertTrue(registered.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch loggedIn = new CountDownLatch(1);
+        User[] user = new User[1];
+        onMainThread(() -> repository.login("tester", "secret", result -> {
+            user[0] = result;
+            loggedIn.countDown();
+        }));
+        assertTrue(loggedIn.await(5, TimeUnit.SECONDS));
+        assertNotNull(user[0]);
+        int userId = user[0].getId();
+
+        CountDownLatch added = new CountDownLatch(1);
+        onMainThread(() -> repository.addTransaction(userId, "Food", "Expense", "Lunch", 1250,
+                EpochDays.of(2025, 1, 15), result -> added.countDown()));
+        assertTrue(added.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch loaded = new CountDownLatch(3);
+        int[] rowCount = new int[1];
+        onMainThread(() -> {
+            repository.getTransactionsPage(userId, 0, -1, 50, (List<Transaction> result) -> {
+                rowCount[0] = result.size();
+                loaded.countDown();
+            });
+            repository.getLatestTransactions(userId, 3, result -> loaded.countDown());
+            repository.getSummary(userId, DatabaseHelper.SUMMARY_WINDOW_DAYS, result -> loaded.countDown());
+        });
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, rowCount[0]);
+        assertTrue(databaseHelper.backgroundOpens.get() > 0);
+        assertEquals(0, databaseHelper.mainThreadOpens.get());
+    }
+
+    private static void onMainThread(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+
+    // Counts which thread each database access comes from
+    private static class RecordingDatabaseHelper extends DatabaseHelper {
+
+        final AtomicInteger mainThreadOpens = new AtomicInteger();
+        final AtomicInteger backgroundOpens = new AtomicInteger();
+
+        RecordingDatabaseHelper(Context context) {
+            super(context, null);
+        }
+
+        @Override
+        public SQLiteDatabase getReadableDatabase() {
+            record();
+            return super.getReadableDatabase();
+        }
+
+        @Override
+        public SQLiteDatabase getWritableDatabase() {
+            record();
+            return super.getWritableDatabase();
+        }
+
+        private void record() {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                mainThreadOpens.incrementAndGet();
+            } else {
+                backgroundOpens.incrementAndGet();
+            }
+        }
+    }
+}
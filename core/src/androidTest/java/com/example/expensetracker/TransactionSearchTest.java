@@ -0,0 +1,124 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Prefix search over descriptions and category names, and the triggers that
+ * keep transactions_fts in step with the transactions table.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransactionSearchTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int foodId;
+    private int travelId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        databaseHelper.setPasswordHasher(new PasswordHasher(1_000));
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        travelId = (int) databaseHelper.addCategory("Travel", "Expense");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void search_matchesWordPrefixesInDescriptionOrCategory() {
+        int today = EpochDays.today();
+        long coffee = databaseHelper.addTransaction(userId, foodId, "Expense", "Coffee after lunch", 450, today);
+        long taxi = databaseHelper.addTransaction(userId, travelId, "Expense", "Taxi to airport", 3000, today);
+        long noDescription = databaseHelper.addTransaction(userId, foodId, "Expense", null, 800, today);
+
+        assertEquals(ids(coffee), idsFor("cof"));
+        assertEquals(ids(coffee), idsFor("LUNCH"));
+        // Every word must match
+        assertEquals(ids(coffee), idsFor("cof lun"));
+        assertEquals(ids(), idsFor("cof taxi"));
+        // Category names are searchable too, newest entry first
+        assertEquals(ids(noDescription, coffee), idsFor("food"));
+        assertEquals(ids(taxi), idsFor("trav air"));
+        // Only word starts match
+        assertEquals(ids(), idsFor("offee"));
+    }
+
+    @Test
+    public void search_treatsPunctuationAndOperatorsAsPlainText() {
+        long id = databaseHelper.addTransaction(userId, foodId, "Expense", "Fish or chips", 900, EpochDays.today());
+
+        assertEquals(ids(id), idsFor("fish OR"));
+        assertEquals(ids(id), idsFor("\"fish\" (chips*"));
+        assertEquals(ids(), idsFor("   "));
+        assertEquals(ids(), idsFor("-- ;"));
+    }
+
+    @Test
+    public void search_followsUpdatesDeletesAndOtherUsers() {
+        int today = EpochDays.today();
+        int otherUserId = (int) databaseHelper.registerUser("Other", "User", "other", "secret");
+        long mine = databaseHelper.addTransaction(userId, foodId, "Expense", "Coffee", 450, today);
+        databaseHelper.addTransaction(otherUserId, foodId, "Expense", "Coffee", 450, today);
+
+        assertEquals(ids(mine), idsFor("coffee"));
+
+        databaseHelper.updateTransaction((int) mine, travelId, "Expense", "Train", 450, today);
+        assertEquals(ids(), idsFor("coffee"));
+        assertEquals(ids(mine), idsFor("train travel"));
+
+        databaseHelper.deleteTransaction((int) mine);
+        assertEquals(ids(), idsFor("train"));
+    }
+
+    @Test
+    public void search_stopsAtLimit() {
+        int today = EpochDays.today();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, databaseHelper.addTransaction(userId, foodId, "Expense", "Snack", 100 + i, today));
+        }
+
+        List<Transaction> results = databaseHelper.searchTransactions(userId, "snack", 3);
+        assertEquals(3, results.size());
+        assertEquals(expected.subList(0, 3), toIds(results));
+        assertEquals("Food", results.get(0).getCategoryName());
+    }
+
+    private List<Long> idsFor(String query) {
+        return toIds(databaseHelper.searchTransactions(userId, query, 50));
+    }
+
+    private static List<Long> toIds(List<Transaction> transactions) {
+        List<Long> ids = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            ids.add((long) transaction.getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(long... ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * The user_balances triggers must track every insert, update and delete.
+ */
+@RunWith(AndroidJUnit4.class)
+public class UserBalanceTest {
+
+    private DatabaseHelper databaseHelper;
+    private int userId;
+    private int foodId;
+    private int salaryId;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        databaseHelper = new DatabaseHelper(context, null);
+        userId = (int) databaseHelper.registerUser("Test", "User", "tester", "secret");
+        foodId = (int) databaseHelper.addCategory("Food", "Expense");
+        salaryId = (int) databaseHelper.addCategory("Salary", "Income");
+    }
+
+    @After
+    public void tearDown() {
+        databaseHelper.close();
+    }
+
+    @Test
+    public void balance_followsInsertUpdateAndDelete() {
+        databaseHelper.addTransaction(userId, salaryId, "Income", "March", 100000, EpochDays.of(2025, 3, 1));
+        int lunchId = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 2500, EpochDays.of(2025, 3, 2));
+        int dinnerId = (int) databaseHelper.addTransaction(userId, foodId, "Expense", "Dinner", 4000, EpochDays.of(2025, 3, 2));
+
+        assertBalance(100000, 6500, 3);
+
+        databaseHelper.updateTransaction(lunchId, foodId, "Expense", "Lunch", 3000, EpochDays.of(2025, 3, 2));
+        assertBalance(100000, 7000, 3);
+
+        databaseHelper.deleteTransaction(dinnerId);
+        assertBalance(100000, 3000, 2);
+
+        assertEquals(0, databaseHelper.verifyUserBalances());
+    }
+
+    @Test
+    public void rebuild_repairsDrift() {
+        databaseHelper.addTransaction(userId, foodId, "Expense", "Lunch", 2500, EpochDays.of(2025, 3, 2));
+        databaseHelper.getWritableDatabase().execSQL("UPDATE user_balances SET expense = 999");
+
+        assertEquals(1, databaseHelper.verifyUserBalances());
+
+        databaseHelper.rebuildUserBalances();
+
+        assertEquals(0, databaseHelper.verifyUserBalances());
+        assertBalance(0, 2500, 1);
+    }
+
+    private void assertBalance(long incomeCents, long expenseCents, int count) {
+        UserBalance balance = databaseHelper.getUserBalance(userId);
+        assertEquals(incomeCents, balance.getIncomeCents());
+        assertEquals(expenseCents, balance.getExpenseCents());
+        assertEquals(count, balance.getTransactionCount());
+    }
+}
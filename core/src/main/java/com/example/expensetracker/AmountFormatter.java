@@ -0,0 +1,124 @@
+package com.example.expensetracker;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Formats cent amounts with two decimals and the locale's digits, decimal
+ * separator and grouping, like a {@code NumberFormat.getNumberInstance(locale)}
+ * set to two fraction digits. No currency symbol is shown: the app does not
+ * know which currency the user records amounts in, so none is guessed from
+ * the locale. It is immutable, so one instance can serve every thread, and
+ * {@link #formatInto} writes into a caller's buffer without allocating.
+ * Get the one for the device locale from {@link Formatters#amounts()}.
+ */
+public final class AmountFormatter {
+
+    private final Locale locale;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    // 0 when digits are not grouped; the secondary size differs in e.g. Indian "12,34,567"
+    private final int primaryGroupSize;
+    private final int secondaryGroupSize;
+    private final int maxLength;
+
+    public AmountFormatter(Locale locale) {
+        this.locale = locale;
+        // Both the platform and the JVM return a DecimalFormat for number instances
+        DecimalFormat format = (DecimalFormat) NumberFormat.getNumberInstance(locale);
+        DecimalFormatSymbols symbols = format.getDecimalFormatSymbols();
+        negativePrefix = format.getNegativePrefix();
+        negativeSuffix = format.getNegativeSuffix();
+        zeroDigit = symbols.getZeroDigit();
+        groupingSeparator = symbols.getGroupingSeparator();
+        decimalSeparator = symbols.getDecimalSeparator();
+
+        int groupSize = format.isGroupingUsed() ? format.getGroupingSize() : 0;
+        primaryGroupSize = groupSize;
+        secondaryGroupSize = groupSize > 0 ? secondaryGroupSize(format.toPattern(), groupSize) : 0;
+
+        // 17 whole digits at most, a separator between every two in the worst case
+        maxLength = negativePrefix.length() + negativeSuffix.length() + 17 * 2 + 3;
+    }
+
+    // Grouping size left of the first separator, read from a pattern like "#,##,##0.###"
+    private static int secondaryGroupSize(String pattern, int primaryGroupSize) {
+        int end = pattern.indexOf(';');
+        String positive = end < 0 ? pattern : pattern.substring(0, end);
+        int decimal = positive.indexOf('.');
+        String integerPart = decimal < 0 ? positive : positive.substring(0, decimal);
+        int last = integerPart.lastIndexOf(',');
+        int previous = last <= 0 ? -1 : integerPart.lastIndexOf(',', last - 1);
+        return previous < 0 ? primaryGroupSize : last - previous - 1;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    // Room formatInto needs for any amount
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public String format(long cents) {
+        char[] text = new char[maxLength];
+        return new String(text, 0, formatInto(cents, text, 0));
+    }
+
+    /**
+     * Writes the formatted amount into {@code dest} at {@code offset}, which
+     * must have {@link #getMaxLength()} chars of room. Returns the index just
+     * past the last char written.
+     */
+    public int formatInto(long cents, char[] dest, int offset) {
+        boolean negative = cents < 0;
+        // Split while negative so Long.MIN_VALUE does not overflow
+        long rest = negative ? cents : -cents;
+        long units = -(rest / 100);
+        int hundredths = (int) -(rest % 100);
+
+        int position = negative ? append(negativePrefix, dest, offset) : offset;
+
+        // Whole part, written backwards from its last digit
+        int digitCount = 1;
+        for (long left = units / 10; left != 0; left /= 10) {
+            digitCount++;
+        }
+        int separators = 0;
+        if (primaryGroupSize > 0 && digitCount > primaryGroupSize) {
+            separators = 1 + (digitCount - primaryGroupSize - 1) / secondaryGroupSize;
+        }
+        int end = position + digitCount + separators;
+        int write = end;
+        int inGroup = 0;
+        int groupSize = primaryGroupSize;
+        long left = units;
+        do {
+            if (groupSize > 0 && inGroup == groupSize) {
+                dest[--write] = groupingSeparator;
+                inGroup = 0;
+                groupSize = secondaryGroupSize;
+            }
+            dest[--write] = (char) (zeroDigit + left % 10);
+            left /= 10;
+            inGroup++;
+        } while (left != 0);
+        position = end;
+
+        dest[position++] = decimalSeparator;
+        dest[position++] = (char) (zeroDigit + hundredths / 10);
+        dest[position++] = (char) (zeroDigit + hundredths % 10);
+        return negative ? append(negativeSuffix, dest, position) : position;
+    }
+
+    private static int append(String text, char[] dest, int offset) {
+        text.getChars(0, text.length(), dest, offset);
+        return offset + text.length();
+    }
+}
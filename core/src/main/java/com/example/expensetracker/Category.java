@@ -0,0 +1,29 @@
+package com.example.expensetracker;
+
+/**
+ * A row of the categories table; (name, type) is unique.
+ */
+public class Category {
+
+    private final int id;
+    private final String name;
+    private final String type;
+
+    public Category(int id, String name, String type) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+}
@@ -0,0 +1,1366 @@
+package com.example.expensetracker;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DatabaseHelper extends SQLiteOpenHelper {
+
+    private static final String TAG = "DatabaseHelper";
+    private static final String DATABASE_NAME = "expense_tracker.db";
+    static final int DATABASE_VERSION = 8;
+
+    // Lookaside memory per connection: 1200 bytes x 250 slots (SQLite default is 1200 x 100)
+    private static final int LOOKASIDE_SLOT_SIZE = 1200;
+    private static final int LOOKASIDE_SLOT_COUNT = 250;
+
+    // Recent-activity window shown on the dashboard
+    public static final int SUMMARY_WINDOW_DAYS = 30;
+
+    // Rows per transaction for bulk inserts
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Ids bound per statement by the batch edits; older platform SQLite allows 999 parameters
+    private static final int MAX_IDS_PER_STATEMENT = 500;
+
+    // Table names
+    public static final String TABLE_USERS = "users";
+    public static final String TABLE_CATEGORIES = "categories";
+    public static final String TABLE_TRANSACTIONS = "transactions";
+    public static final String TABLE_USER_BALANCES = "user_balances";
+    public static final String TABLE_MONTHLY_CATEGORY_TOTALS = "monthly_category_totals";
+    public static final String TABLE_TRANSACTIONS_FTS = "transactions_fts";
+
+    // Column names
+    public static final String COLUMN_USER_ID = "user_id";
+    public static final String COLUMN_FIRST_NAME = "first_name";
+    public static final String COLUMN_LAST_NAME = "last_name";
+    public static final String COLUMN_USERNAME = "username";
+    public static final String COLUMN_PASSWORD = "password";
+
+    public static final String COLUMN_CATEGORY_ID = "category_id";
+    public static final String COLUMN_CATEGORY_NAME = "name";
+    public static final String COLUMN_TYPE = "type";
+
+    public static final String COLUMN_TRANSACTION_ID = "transaction_id";
+    public static final String COLUMN_DESCRIPTION = "description";
+    public static final String COLUMN_AMOUNT = "amount";
+    public static final String COLUMN_DATE = "date";
+
+    public static final String COLUMN_INCOME = "income";
+    public static final String COLUMN_EXPENSE = "expense";
+    public static final String COLUMN_TRANSACTION_COUNT = "transaction_count";
+    public static final String COLUMN_YEAR_MONTH = "year_month";
+    public static final String COLUMN_TOTAL = "total";
+
+    // transactions_fts columns; its docid is the transaction_id
+    public static final String COLUMN_FTS_CATEGORY = "category";
+
+    // Index names
+    public static final String INDEX_TRANSACTIONS_USER_DATE = "idx_transactions_user_date";
+    public static final String INDEX_TRANSACTIONS_USER_TYPE_DATE = "idx_transactions_user_type_date";
+    public static final String INDEX_CATEGORIES_NAME_TYPE = "idx_categories_name_type";
+
+    // SQL statements
+    private static final String CREATE_TABLE_USERS =
+            "CREATE TABLE " + TABLE_USERS + "(" +
+                    COLUMN_USER_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    COLUMN_FIRST_NAME + " TEXT NOT NULL," +
+                    COLUMN_LAST_NAME + " TEXT," + // Last name is optional
+                    COLUMN_USERNAME + " TEXT UNIQUE NOT NULL," +
+                    COLUMN_PASSWORD + " TEXT NOT NULL" +
+                    ")";
+
+    private static final String CREATE_TABLE_CATEGORIES =
+            "CREATE TABLE " + TABLE_CATEGORIES + "(" +
+                    COLUMN_CATEGORY_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    COLUMN_CATEGORY_NAME + " TEXT NOT NULL," +
+                    COLUMN_TYPE + " TEXT NOT NULL CHECK(" + COLUMN_TYPE + " IN ('Expense', 'Income'))" +
+                    ")";
+
+    private static final String CREATE_TABLE_TRANSACTIONS =
+            "CREATE TABLE " + TABLE_TRANSACTIONS + "(" +
+                    COLUMN_TRANSACTION_ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    COLUMN_USER_ID + " INTEGER NOT NULL," +
+                    COLUMN_CATEGORY_ID + " INTEGER NOT NULL," +
+                    COLUMN_TYPE + " TEXT NOT NULL CHECK(" + COLUMN_TYPE + " IN ('Expense', 'Income'))," +
+                    COLUMN_DESCRIPTION + " TEXT," +
+                    COLUMN_AMOUNT + " INTEGER NOT NULL CHECK(" + COLUMN_AMOUNT + " > 0)," + // cents
+                    COLUMN_DATE + " INTEGER NOT NULL," + // days since 1970-01-01, see EpochDays
+                    "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_USER_ID + ") ON DELETE CASCADE," +
+                    "FOREIGN KEY(" + COLUMN_CATEGORY_ID + ") REFERENCES " + TABLE_CATEGORIES + "(" + COLUMN_CATEGORY_ID + ")" +
+                    ")";
+
+    // Per-user history ordered by date (rowid is implicitly the last index column)
+    private static final String CREATE_INDEX_TRANSACTIONS_USER_DATE =
+            "CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_USER_DATE +
+                    " ON " + TABLE_TRANSACTIONS + "(" + COLUMN_USER_ID + ", " + COLUMN_DATE + ")";
+
+    // Covers the income/expense SUM queries so they never touch the table itself
+    private static final String CREATE_INDEX_TRANSACTIONS_USER_TYPE_DATE =
+            "CREATE INDEX IF NOT EXISTS " + INDEX_TRANSACTIONS_USER_TYPE_DATE +
+                    " ON " + TABLE_TRANSACTIONS + "(" + COLUMN_USER_ID + ", " + COLUMN_TYPE + ", " +
+                    COLUMN_DATE + ", " + COLUMN_AMOUNT + ")";
+
+    // One category per (name, type) regardless of case; also serves the name lookup
+    private static final String CREATE_INDEX_CATEGORIES_NAME_TYPE =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_CATEGORIES_NAME_TYPE +
+                    " ON " + TABLE_CATEGORIES + "(" + COLUMN_CATEGORY_NAME + " COLLATE NOCASE, " + COLUMN_TYPE + ")";
+
+    // Lowest category_id of each case-insensitive (name, type) group
+    private static final String SELECT_CANONICAL_CATEGORY_IDS =
+            "SELECT MIN(" + COLUMN_CATEGORY_ID + ") FROM " + TABLE_CATEGORIES +
+                    " GROUP BY " + COLUMN_CATEGORY_NAME + " COLLATE NOCASE, " + COLUMN_TYPE;
+
+    // Per-user queries; package-private so DatabaseIndexTest checks the plans of the SQL actually run
+    private static final String SELECT_USER_TRANSACTIONS =
+            "SELECT t.*, c." + COLUMN_CATEGORY_NAME +
+                    " FROM " + TABLE_TRANSACTIONS + " t" +
+                    " INNER JOIN " + TABLE_CATEGORIES + " c ON t." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID +
+                    " WHERE t." + COLUMN_USER_ID + " = ?";
+    static final String SQL_ALL_TRANSACTIONS = SELECT_USER_TRANSACTIONS + " ORDER BY t." + COLUMN_DATE + " DESC";
+    static final String SQL_LATEST_TRANSACTIONS = SQL_ALL_TRANSACTIONS + " LIMIT ?";
+    // Lifetime and windowed sums per type; binds the window's first day first, then the user
+    static final String SQL_SUMMARY =
+            "SELECT " + COLUMN_TYPE + ", SUM(" + COLUMN_AMOUNT + ")," +
+                    " SUM(CASE WHEN " + COLUMN_DATE + " >= ? THEN " + COLUMN_AMOUNT + " ELSE 0 END)" +
+                    " FROM " + TABLE_TRANSACTIONS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " GROUP BY " + COLUMN_TYPE;
+    static final String SQL_TOTALS_IN_RANGE =
+            "SELECT " + COLUMN_TYPE + ", SUM(" + COLUMN_AMOUNT + ")" +
+                    " FROM " + TABLE_TRANSACTIONS +
+                    " WHERE " + COLUMN_USER_ID + " = ?" +
+                    " AND " + COLUMN_TYPE + " IN ('Income', 'Expense')" +
+                    " AND " + COLUMN_DATE + " BETWEEN ? AND ?" +
+                    " GROUP BY " + COLUMN_TYPE;
+    static final String SQL_TRANSACTIONS_IN_RANGE = SELECT_USER_TRANSACTIONS +
+            " AND t." + COLUMN_DATE + " BETWEEN ? AND ?" +
+            " ORDER BY t." + COLUMN_DATE + " DESC, t." + COLUMN_TRANSACTION_ID + " DESC";
+
+    // Running per-user totals, kept in step with transactions by the triggers below
+    private static final String CREATE_TABLE_USER_BALANCES =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_USER_BALANCES + "(" +
+                    COLUMN_USER_ID + " INTEGER PRIMARY KEY," +
+                    COLUMN_INCOME + " INTEGER NOT NULL DEFAULT 0," +
+                    COLUMN_EXPENSE + " INTEGER NOT NULL DEFAULT 0," +
+                    COLUMN_TRANSACTION_COUNT + " INTEGER NOT NULL DEFAULT 0," +
+                    "FOREIGN KEY(" + COLUMN_USER_ID + ") REFERENCES " + TABLE_USERS + "(" + COLUMN_USER_ID + ") ON DELETE CASCADE" +
+                    ")";
+
+    private static final String CREATE_TRIGGER_BALANCE_INSERT =
+            "CREATE TRIGGER IF NOT EXISTS trg_user_balances_insert AFTER INSERT ON " + TABLE_TRANSACTIONS +
+                    " BEGIN " +
+                    balanceDelta("NEW", "+") +
+                    " END";
+
+    private static final String CREATE_TRIGGER_BALANCE_DELETE =
+            "CREATE TRIGGER IF NOT EXISTS trg_user_balances_delete AFTER DELETE ON " + TABLE_TRANSACTIONS +
+                    " BEGIN " +
+                    balanceDelta("OLD", "-") +
+                    " END";
+
+    private static final String CREATE_TRIGGER_BALANCE_UPDATE =
+            "CREATE TRIGGER IF NOT EXISTS trg_user_balances_update AFTER UPDATE OF " +
+                    COLUMN_USER_ID + ", " + COLUMN_TYPE + ", " + COLUMN_AMOUNT + " ON " + TABLE_TRANSACTIONS +
+                    " BEGIN " +
+                    balanceDelta("OLD", "-") +
+                    balanceDelta("NEW", "+") +
+                    " END";
+
+    // Trigger body that adds ("+") or removes ("-") one NEW/OLD row from its user's totals
+    private static String balanceDelta(String row, String sign) {
+        return "INSERT OR IGNORE INTO " + TABLE_USER_BALANCES + "(" + COLUMN_USER_ID + ")" +
+                " VALUES (" + row + "." + COLUMN_USER_ID + ");" +
+                " UPDATE " + TABLE_USER_BALANCES + " SET " +
+                COLUMN_INCOME + " = " + COLUMN_INCOME + " " + sign +
+                " (CASE WHEN " + row + "." + COLUMN_TYPE + " = 'Income' THEN " + row + "." + COLUMN_AMOUNT + " ELSE 0 END), " +
+                COLUMN_EXPENSE + " = " + COLUMN_EXPENSE + " " + sign +
+                " (CASE WHEN " + row + "." + COLUMN_TYPE + " = 'Expense' THEN " + row + "." + COLUMN_AMOUNT + " ELSE 0 END), " +
+                COLUMN_TRANSACTION_COUNT + " = " + COLUMN_TRANSACTION_COUNT + " " + sign + " 1" +
+                " WHERE " + COLUMN_USER_ID + " = " + row + "." + COLUMN_USER_ID + ";";
+    }
+
+    // Per-user, per-month, per-category totals (year_month is "yyyy-MM"), maintained like user_balances
+    private static final String CREATE_TABLE_MONTHLY_CATEGORY_TOTALS =
+            "CREATE TABLE IF NOT EXISTS " + TABLE_MONTHLY_CATEGORY_TOTALS + "(" +
+                    COLUMN_USER_ID + " INTEGER NOT NULL," +
+                    COLUMN_YEAR_MONTH + " TEXT NOT NULL," +
+                    COLUMN_CATEGORY_ID + " INTEGER NOT NULL," +
+                    COLUMN_TYPE + " TEXT NOT NULL," +
+                    COLUMN_TOTAL + " INTEGER NOT NULL DEFAULT 0," +
+                    COLUMN_TRANSACTION_COUNT + " INTEGER NOT NULL DEFAULT 0," +
+                    "PRIMARY KEY(" + COLUMN_USER_ID + ", " + COLUMN_YEAR_MONTH + ", " +
+                    COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ")" +
+                    ") WITHOUT ROWID";
+
+    /**
+     * SQL for the "yyyy-MM" month of a NEW/OLD row's (or a table's) date.
+     * Dates are "yyyy-MM-dd" text until version 7, so the version 4 and 6
+     * steps build the rollup with the TEXT form; version 7 and onCreate use
+     * the epoch-day form.
+     */
+    private interface YearMonthOf {
+        String of(String row);
+    }
+
+    private static final YearMonthOf TEXT_DATE_YEAR_MONTH =
+            row -> "substr(" + row + "." + COLUMN_DATE + ", 1, 7)";
+    private static final YearMonthOf EPOCH_DAY_YEAR_MONTH =
+            row -> "strftime('%Y-%m', " + row + "." + COLUMN_DATE + " * 86400, 'unixepoch')";
+
+    // Trigger body that adds or removes one NEW/OLD row from its month/category bucket
+    private static String monthlyDelta(String row, String sign, YearMonthOf yearMonthOf) {
+        String key = COLUMN_USER_ID + " = " + row + "." + COLUMN_USER_ID +
+                " AND " + COLUMN_YEAR_MONTH + " = " + yearMonthOf.of(row) +
+                " AND " + COLUMN_CATEGORY_ID + " = " + row + "." + COLUMN_CATEGORY_ID +
+                " AND " + COLUMN_TYPE + " = " + row + "." + COLUMN_TYPE;
+        return "INSERT OR IGNORE INTO " + TABLE_MONTHLY_CATEGORY_TOTALS + "(" +
+                COLUMN_USER_ID + ", " + COLUMN_YEAR_MONTH + ", " + COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ")" +
+                " VALUES (" + row + "." + COLUMN_USER_ID + ", " + yearMonthOf.of(row) + ", " +
+                row + "." + COLUMN_CATEGORY_ID + ", " + row + "." + COLUMN_TYPE + ");" +
+                " UPDATE " + TABLE_MONTHLY_CATEGORY_TOTALS + " SET " +
+                COLUMN_TOTAL + " = " + COLUMN_TOTAL + " " + sign + " " + row + "." + COLUMN_AMOUNT + ", " +
+                COLUMN_TRANSACTION_COUNT + " = " + COLUMN_TRANSACTION_COUNT + " " + sign + " 1" +
+                " WHERE " + key + ";" +
+                // Drop buckets that no longer hold any transaction
+                " DELETE FROM " + TABLE_MONTHLY_CATEGORY_TOTALS +
+                " WHERE " + key + " AND " + COLUMN_TRANSACTION_COUNT + " <= 0;";
+    }
+
+    /**
+     * Full-text index over each transaction's description and category name.
+     * FTS4 rather than FTS5, which the platform SQLite does not always
+     * include; prefix indexes keep short "co*" style prefixes cheap.
+     */
+    private static final String CREATE_TABLE_TRANSACTIONS_FTS =
+            "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE_TRANSACTIONS_FTS + " USING fts4(" +
+                    COLUMN_DESCRIPTION + ", " + COLUMN_FTS_CATEGORY + ", " +
+                    "tokenize=unicode61, prefix=\"2,3\")";
+
+    private static final String CREATE_TRIGGER_FTS_INSERT =
+            "CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_insert AFTER INSERT ON " + TABLE_TRANSACTIONS +
+                    " BEGIN INSERT INTO " + TABLE_TRANSACTIONS_FTS + "(docid, " +
+                    COLUMN_DESCRIPTION + ", " + COLUMN_FTS_CATEGORY + ")" +
+                    " VALUES (NEW." + COLUMN_TRANSACTION_ID + ", NEW." + COLUMN_DESCRIPTION + ", " +
+                    categoryNameOf("NEW") + "); END";
+
+    private static final String CREATE_TRIGGER_FTS_DELETE =
+            "CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_delete AFTER DELETE ON " + TABLE_TRANSACTIONS +
+                    " BEGIN DELETE FROM " + TABLE_TRANSACTIONS_FTS +
+                    " WHERE docid = OLD." + COLUMN_TRANSACTION_ID + "; END";
+
+    private static final String CREATE_TRIGGER_FTS_UPDATE =
+            "CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_update AFTER UPDATE OF " +
+                    COLUMN_DESCRIPTION + ", " + COLUMN_CATEGORY_ID + " ON " + TABLE_TRANSACTIONS +
+                    " BEGIN UPDATE " + TABLE_TRANSACTIONS_FTS + " SET " +
+                    COLUMN_DESCRIPTION + " = NEW." + COLUMN_DESCRIPTION + ", " +
+                    COLUMN_FTS_CATEGORY + " = " + categoryNameOf("NEW") +
+                    " WHERE docid = NEW." + COLUMN_TRANSACTION_ID + "; END";
+
+    // A renamed category is renamed in every transaction that uses it
+    private static final String CREATE_TRIGGER_FTS_CATEGORY_RENAME =
+            "CREATE TRIGGER IF NOT EXISTS trg_transactions_fts_category_rename AFTER UPDATE OF " +
+                    COLUMN_CATEGORY_NAME + " ON " + TABLE_CATEGORIES +
+                    " BEGIN UPDATE " + TABLE_TRANSACTIONS_FTS + " SET " +
+                    COLUMN_FTS_CATEGORY + " = NEW." + COLUMN_CATEGORY_NAME +
+                    " WHERE docid IN (SELECT " + COLUMN_TRANSACTION_ID + " FROM " + TABLE_TRANSACTIONS +
+                    " WHERE " + COLUMN_CATEGORY_ID + " = NEW." + COLUMN_CATEGORY_ID + "); END";
+
+    private static String categoryNameOf(String row) {
+        return "(SELECT " + COLUMN_CATEGORY_NAME + " FROM " + TABLE_CATEGORIES +
+                " WHERE " + COLUMN_CATEGORY_ID + " = " + row + "." + COLUMN_CATEGORY_ID + ")";
+    }
+
+    // Per-user totals recomputed from the transactions table itself
+    private static final String SELECT_BALANCES_FROM_TRANSACTIONS =
+            "SELECT " + COLUMN_USER_ID + "," +
+                    " SUM(CASE WHEN " + COLUMN_TYPE + " = 'Income' THEN " + COLUMN_AMOUNT + " ELSE 0 END) AS " + COLUMN_INCOME + "," +
+                    " SUM(CASE WHEN " + COLUMN_TYPE + " = 'Expense' THEN " + COLUMN_AMOUNT + " ELSE 0 END) AS " + COLUMN_EXPENSE + "," +
+                    " COUNT(*) AS " + COLUMN_TRANSACTION_COUNT +
+                    " FROM " + TABLE_TRANSACTIONS +
+                    " GROUP BY " + COLUMN_USER_ID;
+
+    // Returned by registerUser when the username already exists
+    public static final long USERNAME_TAKEN = -2;
+
+    // Hot statements compiled once and reused through the StatementCache
+    private static final String SQL_INSERT_USER =
+            "INSERT OR IGNORE INTO " + TABLE_USERS + "(" + COLUMN_FIRST_NAME + ", " + COLUMN_LAST_NAME + ", " +
+                    COLUMN_USERNAME + ", " + COLUMN_PASSWORD + ") VALUES (?, ?, ?, ?)";
+    private static final String SQL_USER_ID_BY_USERNAME =
+            "SELECT " + COLUMN_USER_ID + " FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + " = ?";
+    private static final String SQL_USERNAME_EXISTS =
+            "SELECT EXISTS(SELECT 1 FROM " + TABLE_USERS + " WHERE " + COLUMN_USERNAME + " = ?)";
+    static final String SQL_TOTAL_FOR_TYPE =
+            "SELECT COALESCE(SUM(" + COLUMN_AMOUNT + "), 0) FROM " + TABLE_TRANSACTIONS +
+                    " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_TYPE + " = ?";
+    static final String SQL_TOTAL_FOR_TYPE_SINCE = SQL_TOTAL_FOR_TYPE +
+            " AND " + COLUMN_DATE + " >= ?";
+    private static final String SQL_INSERT_TRANSACTION =
+            "INSERT INTO " + TABLE_TRANSACTIONS + "(" +
+                    COLUMN_USER_ID + ", " + COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ", " +
+                    COLUMN_DESCRIPTION + ", " + COLUMN_AMOUNT + ", " + COLUMN_DATE + ") VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE_TRANSACTION =
+            "UPDATE " + TABLE_TRANSACTIONS + " SET " +
+                    COLUMN_CATEGORY_ID + " = ?, " + COLUMN_TYPE + " = ?, " + COLUMN_DESCRIPTION + " = ?, " +
+                    COLUMN_AMOUNT + " = ?, " + COLUMN_DATE + " = ? WHERE " + COLUMN_TRANSACTION_ID + " = ?";
+    private static final String SQL_DELETE_TRANSACTION =
+            "DELETE FROM " + TABLE_TRANSACTIONS + " WHERE " + COLUMN_TRANSACTION_ID + " = ?";
+    private static final String SQL_USER_OF_TRANSACTION =
+            "SELECT " + COLUMN_USER_ID + " FROM " + TABLE_TRANSACTIONS + " WHERE " + COLUMN_TRANSACTION_ID + " = ?";
+
+    // Rows in the shape readTransactions expects; callers append the WHERE clause
+    private static final String SELECT_TRANSACTIONS_WITH_CATEGORY =
+            "SELECT t.*, c." + COLUMN_CATEGORY_NAME +
+                    " FROM " + TABLE_TRANSACTIONS + " t" +
+                    " INNER JOIN " + TABLE_CATEGORIES + " c ON t." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID;
+
+    private static DatabaseHelper instance;
+
+    private final StatementCache statementCache = new StatementCache();
+    private final InvalidationTracker invalidationTracker = new InvalidationTracker();
+    private volatile PasswordHasher passwordHasher = new PasswordHasher();
+
+    // Normalized (name, type) -> category_id, shared by every screen through the singleton
+    private final Map<String, Integer> categoryCache = new ConcurrentHashMap<>();
+    private volatile boolean categoryCacheWarm;
+
+    /**
+     * Returns the process-wide helper. All screens share one open database so
+     * the file is not reopened on every activity, and WAL lets background reads
+     * run alongside inserts instead of waiting for them.
+     */
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext(), DATABASE_NAME);
+        }
+        return instance;
+    }
+
+    // A null name opens a private in-memory database (used by tests)
+    DatabaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+            // Bigger per-connection lookaside allocator for the many short-lived statements
+            setLookasideConfig(LOOKASIDE_SLOT_SIZE, LOOKASIDE_SLOT_COUNT);
+        }
+    }
+
+    // Changes the hashing cost; existing users are rehashed at their next login
+    void setPasswordHasher(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+    }
+
+    // Tells screens when a user's transactions change
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidationTracker;
+    }
+
+    @Override
+    public synchronized void close() {
+        statementCache.clear();
+        super.close();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_USERS);
+        db.execSQL(CREATE_TABLE_CATEGORIES);
+        db.execSQL(CREATE_TABLE_TRANSACTIONS);
+        createTransactionIndexes(db);
+        createUserBalances(db);
+        createMonthlyCategoryTotals(db, EPOCH_DAY_YEAR_MONTH);
+        db.execSQL(CREATE_INDEX_CATEGORIES_NAME_TYPE);
+        createSearchIndex(db);
+        // NO DEFAULT DATA
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Run every step between the two versions in order, never dropping user data.
+        // SQLiteOpenHelper wraps the whole call in one transaction, so if any step
+        // throws, every step rolls back and the database stays at oldVersion.
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            getMigration(version).migrate(db);
+        }
+    }
+
+    /**
+     * One schema step. Each step upgrades the database from {@code version - 1}
+     * to {@code version}, inside the transaction onUpgrade runs in.
+     */
+    interface Migration {
+        void migrate(SQLiteDatabase db);
+    }
+
+    // migrations[i] upgrades to version i + 2 (version 1 is the original schema)
+    private final Migration[] migrations = {
+            this::createTransactionIndexes, // 2: per-user indexes on transactions
+            this::createUserBalances,       // 3: user_balances summary table
+            this::createMonthlyCategoryTotals, // 4: monthly_category_totals rollup
+            this::mergeDuplicateCategories,    // 5: unique (name, type) categories
+            this::convertAmountsToCents,       // 6: INTEGER cents instead of REAL amounts
+            this::convertDatesToEpochDays,     // 7: INTEGER epoch days instead of TEXT dates
+            this::createSearchIndex            // 8: transactions_fts full-text index
+    };
+
+    Migration getMigration(int version) {
+        int index = version - 2;
+        if (index < 0 || index >= migrations.length) {
+            throw new IllegalStateException("No migration to database version " + version);
+        }
+        return migrations[index];
+    }
+
+    private void createTransactionIndexes(SQLiteDatabase db) {
+        db.execSQL(CREATE_INDEX_TRANSACTIONS_USER_DATE);
+        db.execSQL(CREATE_INDEX_TRANSACTIONS_USER_TYPE_DATE);
+    }
+
+    private void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_TRANSACTIONS_FTS);
+        db.execSQL(CREATE_TRIGGER_FTS_INSERT);
+        db.execSQL(CREATE_TRIGGER_FTS_DELETE);
+        db.execSQL(CREATE_TRIGGER_FTS_UPDATE);
+        db.execSQL(CREATE_TRIGGER_FTS_CATEGORY_RENAME);
+        db.execSQL("INSERT INTO " + TABLE_TRANSACTIONS_FTS + "(docid, " +
+                COLUMN_DESCRIPTION + ", " + COLUMN_FTS_CATEGORY + ")" +
+                " SELECT t." + COLUMN_TRANSACTION_ID + ", t." + COLUMN_DESCRIPTION + ", c." + COLUMN_CATEGORY_NAME +
+                " FROM " + TABLE_TRANSACTIONS + " t" +
+                " INNER JOIN " + TABLE_CATEGORIES + " c ON t." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID);
+    }
+
+    private void createUserBalances(SQLiteDatabase db) {
+        db.execSQL(CREATE_TABLE_USER_BALANCES);
+        createBalanceTriggers(db);
+        rebuildUserBalances(db);
+    }
+
+    private void createBalanceTriggers(SQLiteDatabase db) {
+        db.execSQL(CREATE_TRIGGER_BALANCE_INSERT);
+        db.execSQL(CREATE_TRIGGER_BALANCE_DELETE);
+        db.execSQL(CREATE_TRIGGER_BALANCE_UPDATE);
+    }
+
+    // Points transactions at one copy of each duplicated category, then makes (name, type) unique
+    private void mergeDuplicateCategories(SQLiteDatabase db) {
+        db.execSQL("UPDATE " + TABLE_TRANSACTIONS + " SET " + COLUMN_CATEGORY_ID + " = (" +
+                "SELECT MIN(c2." + COLUMN_CATEGORY_ID + ") FROM " + TABLE_CATEGORIES + " c1" +
+                " INNER JOIN " + TABLE_CATEGORIES + " c2 ON c2." + COLUMN_CATEGORY_NAME + " = c1." + COLUMN_CATEGORY_NAME +
+                " COLLATE NOCASE AND c2." + COLUMN_TYPE + " = c1." + COLUMN_TYPE +
+                " WHERE c1." + COLUMN_CATEGORY_ID + " = " + TABLE_TRANSACTIONS + "." + COLUMN_CATEGORY_ID + ")" +
+                " WHERE " + COLUMN_CATEGORY_ID + " NOT IN (" + SELECT_CANONICAL_CATEGORY_IDS + ")");
+        db.execSQL("DELETE FROM " + TABLE_CATEGORIES +
+                " WHERE " + COLUMN_CATEGORY_ID + " NOT IN (" + SELECT_CANONICAL_CATEGORY_IDS + ")");
+        db.execSQL(CREATE_INDEX_CATEGORIES_NAME_TYPE);
+    }
+
+    // Sub-cent amounts would round to 0 and fail the CHECK, so they become one cent
+    private void convertAmountsToCents(SQLiteDatabase db) {
+        rebuildTransactionsTable(db,
+                "MAX(1, CAST(ROUND(" + COLUMN_AMOUNT + " * 100) AS INTEGER))",
+                COLUMN_DATE, TEXT_DATE_YEAR_MONTH);
+    }
+
+    // "yyyy-MM-dd" text to days since 1970-01-01; a date SQLite cannot parse becomes the upgrade day
+    private void convertDatesToEpochDays(SQLiteDatabase db) {
+        rebuildTransactionsTable(db,
+                COLUMN_AMOUNT,
+                "COALESCE(" + epochDayOf(COLUMN_DATE) + ", " + epochDayOf("'now'") + ")",
+                EPOCH_DAY_YEAR_MONTH);
+    }
+
+    private static String epochDayOf(String isoDate) {
+        return "CAST(julianday(" + isoDate + ") - 2440587.5 AS INTEGER)";
+    }
+
+    /**
+     * Copies transactions into a table created from the current
+     * CREATE_TABLE_TRANSACTIONS (SQLite cannot change a column's type in
+     * place), converting amount and date with the given expressions, then
+     * recreates the indexes, triggers and summary tables that depend on it.
+     * {@code yearMonthOf} must match the dates the new table holds.
+     */
+    private void rebuildTransactionsTable(SQLiteDatabase db, String amountExpression, String dateExpression,
+                                          YearMonthOf yearMonthOf) {
+        String oldTable = TABLE_TRANSACTIONS + "_old";
+        db.execSQL("ALTER TABLE " + TABLE_TRANSACTIONS + " RENAME TO " + oldTable);
+        db.execSQL(CREATE_TABLE_TRANSACTIONS);
+        db.execSQL("INSERT INTO " + TABLE_TRANSACTIONS + " SELECT " +
+                COLUMN_TRANSACTION_ID + ", " + COLUMN_USER_ID + ", " + COLUMN_CATEGORY_ID + ", " +
+                COLUMN_TYPE + ", " + COLUMN_DESCRIPTION + ", " + amountExpression + ", " + dateExpression +
+                " FROM " + oldTable);
+        // Keep AUTOINCREMENT from reusing ids of rows deleted before the upgrade
+        db.execSQL("UPDATE sqlite_sequence SET seq = (SELECT seq FROM sqlite_sequence WHERE name = ?)" +
+                " WHERE name = ?", new Object[]{oldTable, TABLE_TRANSACTIONS});
+        // Also drops the old indexes and triggers, which moved with the rename
+        db.execSQL("DROP TABLE " + oldTable);
+        createTransactionIndexes(db);
+
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER_BALANCES);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_MONTHLY_CATEGORY_TOTALS);
+        createUserBalances(db);
+        createMonthlyCategoryTotals(db, yearMonthOf);
+    }
+
+    // Version 4 step: dates are still "yyyy-MM-dd" text here
+    private void createMonthlyCategoryTotals(SQLiteDatabase db) {
+        createMonthlyCategoryTotals(db, TEXT_DATE_YEAR_MONTH);
+    }
+
+    private void createMonthlyCategoryTotals(SQLiteDatabase db, YearMonthOf yearMonthOf) {
+        db.execSQL(CREATE_TABLE_MONTHLY_CATEGORY_TOTALS);
+        createMonthlyTriggers(db, yearMonthOf);
+        rebuildMonthlyCategoryTotals(db, yearMonthOf);
+    }
+
+    private void createMonthlyTriggers(SQLiteDatabase db, YearMonthOf yearMonthOf) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_insert AFTER INSERT ON " + TABLE_TRANSACTIONS +
+                " BEGIN " +
+                monthlyDelta("NEW", "+", yearMonthOf) +
+                " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_delete AFTER DELETE ON " + TABLE_TRANSACTIONS +
+                " BEGIN " +
+                monthlyDelta("OLD", "-", yearMonthOf) +
+                " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS trg_monthly_totals_update AFTER UPDATE OF " +
+                COLUMN_USER_ID + ", " + COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ", " +
+                COLUMN_AMOUNT + ", " + COLUMN_DATE + " ON " + TABLE_TRANSACTIONS +
+                " BEGIN " +
+                monthlyDelta("OLD", "-", yearMonthOf) +
+                monthlyDelta("NEW", "+", yearMonthOf) +
+                " END");
+    }
+
+    private void rebuildMonthlyCategoryTotals(SQLiteDatabase db, YearMonthOf yearMonthOf) {
+        db.execSQL("DELETE FROM " + TABLE_MONTHLY_CATEGORY_TOTALS);
+        db.execSQL("INSERT INTO " + TABLE_MONTHLY_CATEGORY_TOTALS + "(" +
+                COLUMN_USER_ID + ", " + COLUMN_YEAR_MONTH + ", " + COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ", " +
+                COLUMN_TOTAL + ", " + COLUMN_TRANSACTION_COUNT + ")" +
+                " SELECT " + COLUMN_USER_ID + ", " + yearMonthOf.of(TABLE_TRANSACTIONS) + ", " +
+                COLUMN_CATEGORY_ID + ", " + COLUMN_TYPE + ", SUM(" + COLUMN_AMOUNT + "), COUNT(*)" +
+                " FROM " + TABLE_TRANSACTIONS +
+                " GROUP BY 1, 2, 3, 4");
+    }
+
+    private void rebuildUserBalances(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + TABLE_USER_BALANCES);
+        db.execSQL("INSERT INTO " + TABLE_USER_BALANCES + "(" + COLUMN_USER_ID + ", " + COLUMN_INCOME + ", " +
+                COLUMN_EXPENSE + ", " + COLUMN_TRANSACTION_COUNT + ") " + SELECT_BALANCES_FROM_TRANSACTIONS);
+    }
+
+    /**
+     * Adds a user in a single insert; the UNIQUE username column decides
+     * whether the name is free. Returns the new user id, or
+     * {@link #USERNAME_TAKEN} if the username is already registered. The
+     * password is stored as a salted hash, which is slow to compute; call this
+     * off the main thread.
+     */
+    public long registerUser(String firstName, String lastName, String username, String password) {
+        String passwordHash = passwordHasher.hash(password);
+        SQLiteStatement statement = statementCache.get(getWritableDatabase(), SQL_INSERT_USER);
+        synchronized (statement) {
+            // Required columns are bound with bindString, which rejects null, so
+            // the only row OR IGNORE can skip is a duplicate username
+            statement.bindString(1, firstName);
+            if (lastName != null) {
+                statement.bindString(2, lastName);
+            }
+            statement.bindString(3, username);
+            statement.bindString(4, passwordHash);
+            try {
+                long userId = statement.executeInsert();
+                return userId == -1 ? USERNAME_TAKEN : userId;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    /**
+     * The user with these credentials, or empty if the username is unknown or
+     * the password is wrong. One lookup on the unique username index, then the
+     * password is checked against its salted hash. Plaintext passwords from
+     * before hashing, and hashes of a different cost, are replaced with a fresh
+     * hash on a successful login. Slow on purpose; call it off the main thread.
+     */
+    public Optional<User> authenticate(String username, String password) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT " + COLUMN_USER_ID + ", " + COLUMN_FIRST_NAME + ", " + COLUMN_LAST_NAME + ", " +
+                COLUMN_PASSWORD + " FROM " + TABLE_USERS +
+                " WHERE " + COLUMN_USERNAME + " = ?";
+
+        int userId;
+        String fullName;
+        String storedPassword;
+        try (Cursor cursor = db.rawQuery(query, new String[]{username})) {
+            if (!cursor.moveToFirst()) {
+                return Optional.empty();
+            }
+            userId = cursor.getInt(0);
+            fullName = fullName(cursor.getString(1), cursor.getString(2));
+            storedPassword = cursor.getString(3);
+        }
+
+        PasswordHasher hasher = passwordHasher;
+        if (!hasher.verify(password, storedPassword)) {
+            return Optional.empty();
+        }
+        if (hasher.needsRehash(storedPassword)) {
+            ContentValues values = new ContentValues();
+            values.put(COLUMN_PASSWORD, hasher.hash(password));
+            getWritableDatabase().update(TABLE_USERS, values,
+                    COLUMN_USER_ID + " = ?", new String[]{String.valueOf(userId)});
+        }
+        return Optional.of(new User(userId, username, fullName));
+    }
+
+    private static String fullName(String firstName, String lastName) {
+        return firstName + (lastName != null && !lastName.isEmpty() ? " " + lastName : "");
+    }
+
+    public int getUserId(String username) {
+        SQLiteStatement statement = statementCache.get(getReadableDatabase(), SQL_USER_ID_BY_USERNAME);
+        synchronized (statement) {
+            statement.bindString(1, username);
+            try {
+                return (int) statement.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                return -1; // no such user
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    public boolean isUsernameTaken(String username) {
+        SQLiteStatement statement = statementCache.get(getReadableDatabase(), SQL_USERNAME_EXISTS);
+        synchronized (statement) {
+            statement.bindString(1, username);
+            try {
+                return statement.simpleQueryForLong() != 0;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    // Returns the new row id, or -1 if the row was rejected
+    public long addTransaction(int userId, int categoryId, String type,
+                               String description, long amountCents, int epochDay) {
+        SQLiteStatement statement = statementCache.get(getWritableDatabase(), SQL_INSERT_TRANSACTION);
+        synchronized (statement) {
+            statement.bindLong(1, userId);
+            statement.bindLong(2, categoryId);
+            statement.bindString(3, type);
+            if (description != null) {
+                statement.bindString(4, description);
+            }
+            statement.bindLong(5, amountCents);
+            statement.bindLong(6, epochDay);
+            try {
+                long transactionId = statement.executeInsert();
+                invalidationTracker.notifyChanged(userId, (int) transactionId);
+                return transactionId;
+            } catch (SQLException e) {
+                // Same contract as SQLiteDatabase.insert, e.g. for a CHECK failure
+                Log.e(TAG, "Error inserting transaction", e);
+                return -1;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    public int bulkInsertTransactions(List<Transaction> transactions) {
+        return bulkInsertTransactions(transactions, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Inserts many rows through one compiled statement, committing every
+     * {@code batchSize} rows instead of once per row. The id and category
+     * name of each Transaction are ignored. Returns the number of rows inserted;
+     * batches committed before a failure stay in the database.
+     */
+    public int bulkInsertTransactions(List<Transaction> transactions, int batchSize) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        // Own statement rather than the cached one, so a long import does not hold its lock
+        SQLiteStatement insert = db.compileStatement(SQL_INSERT_TRANSACTION);
+        Set<Integer> userIds = new HashSet<>();
+        int inserted = 0;
+        try {
+            for (int start = 0; start < transactions.size(); start += batchSize) {
+                int end = Math.min(start + batchSize, transactions.size());
+                db.beginTransaction();
+                try {
+                    for (int i = start; i < end; i++) {
+                        Transaction transaction = transactions.get(i);
+                        userIds.add(transaction.getUserId());
+                        insert.clearBindings();
+                        insert.bindLong(1, transaction.getUserId());
+                        insert.bindLong(2, transaction.getCategoryId());
+                        insert.bindString(3, transaction.getType());
+                        if (transaction.getDescription() != null) {
+                            insert.bindString(4, transaction.getDescription());
+                        }
+                        insert.bindLong(5, transaction.getAmountCents());
+                        insert.bindLong(6, transaction.getEpochDay());
+                        insert.executeInsert();
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                inserted = end;
+            }
+        } finally {
+            insert.close();
+            // Once per import rather than per row; an uncommitted batch changed nothing
+            if (inserted > 0) {
+                for (int userId : userIds) {
+                    invalidationTracker.notifyChanged(userId, InvalidationTracker.ALL_ROWS);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    public Cursor getAllTransactions(int userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(SQL_ALL_TRANSACTIONS, new String[]{String.valueOf(userId)});
+    }
+
+    public List<Transaction> getTransactionsPage(int userId, int beforeEpochDay, int beforeId, int pageSize) {
+        return getTransactionsPage(TransactionFilter.forUser(userId), beforeEpochDay, beforeId, pageSize);
+    }
+
+    /**
+     * One page of the filtered history, newest first, continuing after the
+     * last row of the previous page. Pass -1 as {@code beforeId} for the first
+     * page. Seeks straight to the position through idx_transactions_user_date,
+     * so page 10,000 costs the same as page 1 (OFFSET would walk every earlier row).
+     */
+    public List<Transaction> getTransactionsPage(TransactionFilter filter, int beforeEpochDay, int beforeId,
+                                                 int pageSize) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        List<String> args = new ArrayList<>();
+        String query = buildPageQuery(filter, beforeEpochDay, beforeId, pageSize, args);
+        return readTransactions(db.rawQuery(query, args.toArray(new String[0])));
+    }
+
+    // The query getTransactionsPage runs; package-private so tests can check its plan
+    static String buildPageQuery(TransactionFilter filter, int beforeEpochDay, int beforeId, int pageSize,
+                                 List<String> args) {
+        StringBuilder query = new StringBuilder(SELECT_TRANSACTIONS_WITH_CATEGORY).append(" WHERE ");
+        filter.appendWhere(query, args);
+        if (beforeId >= 0) {
+            // "date <= ?" gives SQLite the index range; the OR drops the rows already shown on the same day
+            query.append(" AND t.").append(COLUMN_DATE).append(" <= ?")
+                    .append(" AND (t.").append(COLUMN_DATE).append(" < ? OR t.")
+                    .append(COLUMN_TRANSACTION_ID).append(" < ?)");
+            String beforeDay = String.valueOf(beforeEpochDay);
+            args.add(beforeDay);
+            args.add(beforeDay);
+            args.add(String.valueOf(beforeId));
+        }
+        query.append(" ORDER BY t.").append(COLUMN_DATE).append(" DESC, t.")
+                .append(COLUMN_TRANSACTION_ID).append(" DESC LIMIT ?");
+        args.add(String.valueOf(pageSize));
+        return query.toString();
+    }
+
+    public List<Transaction> getTransactionsByIds(int userId, Collection<Integer> transactionIds) {
+        return getTransactionsByIds(TransactionFilter.forUser(userId), transactionIds);
+    }
+
+    // Those of the given rows that still exist and pass the filter, in no particular order
+    public List<Transaction> getTransactionsByIds(TransactionFilter filter, Collection<Integer> transactionIds) {
+        if (transactionIds.isEmpty()) return new ArrayList<>();
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        StringBuilder query = new StringBuilder(SELECT_TRANSACTIONS_WITH_CATEGORY).append(" WHERE ");
+        List<String> args = new ArrayList<>();
+        filter.appendWhere(query, args);
+        query.append(" AND t.").append(COLUMN_TRANSACTION_ID).append(" IN (");
+        boolean first = true;
+        for (int transactionId : transactionIds) {
+            query.append(first ? "?" : ", ?");
+            args.add(String.valueOf(transactionId));
+            first = false;
+        }
+        query.append(')');
+        return readTransactions(db.rawQuery(query.toString(), args.toArray(new String[0])));
+    }
+
+    /**
+     * Transactions whose description or category name contains words
+     * starting with every word of {@code query} ("cof lun" finds "Coffee
+     * after lunch"), most recently entered first. Walks the full-text index
+     * newest docid first and stops at {@code limit}, so the cost does not
+     * grow with the size of the history.
+     */
+    public List<Transaction> searchTransactions(int userId, String query, int limit) {
+        String match = toMatchQuery(query);
+        if (match.isEmpty()) return new ArrayList<>();
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        // CROSS JOIN keeps the index as the outer loop; a date-ordered plan would sort every match
+        String sql = "SELECT t.*, c." + COLUMN_CATEGORY_NAME +
+                " FROM " + TABLE_TRANSACTIONS_FTS +
+                " CROSS JOIN " + TABLE_TRANSACTIONS + " t ON t." + COLUMN_TRANSACTION_ID + " = " +
+                TABLE_TRANSACTIONS_FTS + ".docid" +
+                " INNER JOIN " + TABLE_CATEGORIES + " c ON t." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID +
+                " WHERE " + TABLE_TRANSACTIONS_FTS + " MATCH ? AND t." + COLUMN_USER_ID + " = ?" +
+                " ORDER BY " + TABLE_TRANSACTIONS_FTS + ".docid DESC LIMIT ?";
+        return readTransactions(db.rawQuery(sql, new String[]{match, String.valueOf(userId), String.valueOf(limit)}));
+    }
+
+    // User text to an FTS prefix query; anything but letters and digits only separates words
+    static String toMatchQuery(String query) {
+        StringBuilder match = new StringBuilder();
+        // Lower case, so words like OR and NOT are never read as operators
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append(word).append('*');
+        }
+        return match.toString();
+    }
+
+    public Cursor getCategoryByNameAndType(String name, String type) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.query(TABLE_CATEGORIES,
+                null,
+                COLUMN_CATEGORY_NAME + " = ? AND " + COLUMN_TYPE + " = ?",
+                new String[]{name, type},
+                null, null, null);
+    }
+
+    // Lifetime totals in cents
+    public long[] getLifetimeTotals(int userId) {
+        long[] totals = new long[2]; // [0] = income, [1] = expense
+        SQLiteStatement statement = statementCache.get(getReadableDatabase(), SQL_TOTAL_FOR_TYPE);
+        synchronized (statement) {
+            try {
+                statement.bindLong(1, userId);
+                statement.bindString(2, "Income");
+                totals[0] = statement.simpleQueryForLong();
+                statement.bindString(2, "Expense");
+                totals[1] = statement.simpleQueryForLong();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+        return totals;
+    }
+
+    // Income and expense in cents of the filtered transactions: [0] = income, [1] = expense
+    public long[] getTotals(TransactionFilter filter) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        StringBuilder query = new StringBuilder("SELECT t." + COLUMN_TYPE + ", SUM(t." + COLUMN_AMOUNT + ")" +
+                " FROM " + TABLE_TRANSACTIONS + " t WHERE ");
+        List<String> args = new ArrayList<>();
+        filter.appendWhere(query, args);
+        query.append(" GROUP BY t.").append(COLUMN_TYPE);
+
+        Cursor cursor = db.rawQuery(query.toString(), args.toArray(new String[0]));
+        long[] totals = new long[2];
+        while (cursor.moveToNext()) {
+            totals["Income".equals(cursor.getString(0)) ? 0 : 1] = cursor.getLong(1);
+        }
+        cursor.close();
+        return totals;
+    }
+
+    /**
+     * Lifetime and last-{@code windowDays} income/expense in one pass over the
+     * covering type index, instead of four separate SUM queries.
+     */
+    public TransactionSummary getSummary(int userId, int windowDays) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String windowStart = String.valueOf(EpochDays.today() - windowDays);
+        Cursor cursor = db.rawQuery(SQL_SUMMARY, new String[]{windowStart, String.valueOf(userId)});
+        long lifetimeIncome = 0, lifetimeExpense = 0, windowIncome = 0, windowExpense = 0;
+        while (cursor.moveToNext()) {
+            if ("Income".equals(cursor.getString(0))) {
+                lifetimeIncome = cursor.getLong(1);
+                windowIncome = cursor.getLong(2);
+            } else {
+                lifetimeExpense = cursor.getLong(1);
+                windowExpense = cursor.getLong(2);
+            }
+        }
+        cursor.close();
+        return new TransactionSummary(windowDays, lifetimeIncome, lifetimeExpense, windowIncome, windowExpense);
+    }
+
+    /**
+     * Income and expense in cents between two epoch days (inclusive). The
+     * type list lets SQLite seek the covering type index once per type
+     * instead of scanning the user's whole history.
+     */
+    public long[] getTotalsInRange(int userId, int fromEpochDay, int toEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(SQL_TOTALS_IN_RANGE, new String[]{String.valueOf(userId),
+                String.valueOf(fromEpochDay), String.valueOf(toEpochDay)});
+        long[] totals = new long[2]; // [0] = income, [1] = expense
+        while (cursor.moveToNext()) {
+            totals["Income".equals(cursor.getString(0)) ? 0 : 1] = cursor.getLong(1);
+        }
+        cursor.close();
+        return totals;
+    }
+
+    // Transactions between two epoch days (inclusive), newest first
+    public List<Transaction> getTransactionsInRange(int userId, int fromEpochDay, int toEpochDay) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return readTransactions(db.rawQuery(SQL_TRANSACTIONS_IN_RANGE, new String[]{String.valueOf(userId),
+                String.valueOf(fromEpochDay), String.valueOf(toEpochDay)}));
+    }
+
+    // Lifetime totals for one user: a single primary-key read of user_balances
+    public UserBalance getUserBalance(int userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT " + COLUMN_INCOME + ", " + COLUMN_EXPENSE + ", " + COLUMN_TRANSACTION_COUNT +
+                " FROM " + TABLE_USER_BALANCES +
+                " WHERE " + COLUMN_USER_ID + " = ?";
+
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
+        UserBalance balance = new UserBalance(userId, 0, 0, 0);
+        if (cursor.moveToFirst()) {
+            balance = new UserBalance(userId, cursor.getLong(0), cursor.getLong(1), cursor.getInt(2));
+        }
+        cursor.close();
+        return balance;
+    }
+
+    /**
+     * Compares user_balances against a full scan of transactions.
+     * Returns the number of users whose stored totals are wrong or missing.
+     */
+    public int verifyUserBalances() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT COUNT(*) FROM (" + SELECT_BALANCES_FROM_TRANSACTIONS + ") f" +
+                " LEFT JOIN " + TABLE_USER_BALANCES + " b ON b." + COLUMN_USER_ID + " = f." + COLUMN_USER_ID +
+                " WHERE b." + COLUMN_USER_ID + " IS NULL" +
+                " OR b." + COLUMN_TRANSACTION_COUNT + " != f." + COLUMN_TRANSACTION_COUNT +
+                " OR b." + COLUMN_INCOME + " != f." + COLUMN_INCOME +
+                " OR b." + COLUMN_EXPENSE + " != f." + COLUMN_EXPENSE;
+        // Users left with stored totals but no transactions at all
+        String orphanQuery = "SELECT COUNT(*) FROM " + TABLE_USER_BALANCES + " b" +
+                " WHERE b." + COLUMN_TRANSACTION_COUNT + " != 0 AND NOT EXISTS (SELECT 1 FROM " + TABLE_TRANSACTIONS +
+                " t WHERE t." + COLUMN_USER_ID + " = b." + COLUMN_USER_ID + ")";
+
+        return (int) (DatabaseUtils.longForQuery(db, query, null) +
+                DatabaseUtils.longForQuery(db, orphanQuery, null));
+    }
+
+    // Recomputes user_balances from scratch, e.g. after verifyUserBalances reports drift
+    public void rebuildUserBalances() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            rebuildUserBalances(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Spending and income per month and category between two "yyyy-MM" months
+     * (inclusive), read from the monthly rollup instead of the raw history.
+     */
+    public List<MonthlyCategoryTotal> getMonthlyBreakdown(int userId, String fromMonth, String toMonth) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT m." + COLUMN_YEAR_MONTH + ", m." + COLUMN_CATEGORY_ID + ", c." + COLUMN_CATEGORY_NAME +
+                ", m." + COLUMN_TYPE + ", m." + COLUMN_TOTAL + ", m." + COLUMN_TRANSACTION_COUNT +
+                " FROM " + TABLE_MONTHLY_CATEGORY_TOTALS + " m" +
+                " INNER JOIN " + TABLE_CATEGORIES + " c ON m." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID +
+                " WHERE m." + COLUMN_USER_ID + " = ?" +
+                " AND m." + COLUMN_YEAR_MONTH + " BETWEEN ? AND ?" +
+                " ORDER BY m." + COLUMN_YEAR_MONTH + ", m." + COLUMN_TYPE + ", m." + COLUMN_TOTAL + " DESC";
+
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId), fromMonth, toMonth});
+        List<MonthlyCategoryTotal> breakdown = new ArrayList<>();
+        while (cursor.moveToNext()) {
+            breakdown.add(new MonthlyCategoryTotal(cursor.getString(0), cursor.getInt(1), cursor.getString(2),
+                    cursor.getString(3), cursor.getLong(4), cursor.getInt(5)));
+        }
+        cursor.close();
+        return breakdown;
+    }
+
+    public Cursor getTransactionById(int transactionId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT t.*, c." + COLUMN_CATEGORY_NAME +
+                " FROM " + TABLE_TRANSACTIONS + " t" +
+                " INNER JOIN " + TABLE_CATEGORIES + " c ON t." + COLUMN_CATEGORY_ID + " = c." + COLUMN_CATEGORY_ID +
+                " WHERE t." + COLUMN_TRANSACTION_ID + " = ?";
+        return db.rawQuery(query, new String[]{String.valueOf(transactionId)});
+    }
+
+    public int deleteTransaction(int transactionId) {
+        // Owner first, so the right user's screens hear about it; nothing to do if the row is gone
+        int userId = getTransactionUserId(transactionId);
+        if (userId == -1) return 0;
+
+        SQLiteStatement statement = statementCache.get(getWritableDatabase(), SQL_DELETE_TRANSACTION);
+        int deleted;
+        synchronized (statement) {
+            statement.bindLong(1, transactionId);
+            try {
+                deleted = statement.executeUpdateDelete();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+        if (deleted > 0) {
+            invalidationTracker.notifyChanged(userId, transactionId);
+        }
+        return deleted;
+    }
+
+    public int updateTransaction(int transactionId, int categoryId, String type,
+                                 String description, long amountCents, int epochDay) {
+        int userId = getTransactionUserId(transactionId);
+        if (userId == -1) return 0;
+
+        SQLiteStatement statement = statementCache.get(getWritableDatabase(), SQL_UPDATE_TRANSACTION);
+        int updated;
+        synchronized (statement) {
+            statement.bindLong(1, categoryId);
+            statement.bindString(2, type);
+            if (description != null) {
+                statement.bindString(3, description);
+            }
+            statement.bindLong(4, amountCents);
+            statement.bindLong(5, epochDay);
+            statement.bindLong(6, transactionId);
+            try {
+                updated = statement.executeUpdateDelete();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+        if (updated > 0) {
+            invalidationTracker.notifyChanged(userId, transactionId);
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes the user's rows with the given ids in one database transaction,
+     * binding a chunk of ids per statement. Ids of other users' rows are
+     * skipped. Returns the number of rows deleted.
+     */
+    public int deleteTransactions(int userId, int[] transactionIds) {
+        String sql = "DELETE FROM " + TABLE_TRANSACTIONS +
+                " WHERE " + COLUMN_USER_ID + " = ? AND " + COLUMN_TRANSACTION_ID + " IN (";
+        int deleted = executeForIds(sql, new long[]{userId}, transactionIds);
+        // Once per batch, after it commits; the ids asked for may include rows that were not deleted
+        if (deleted > 0) {
+            invalidationTracker.notifyChanged(userId, InvalidationTracker.ALL_ROWS);
+        }
+        return deleted;
+    }
+
+    /**
+     * Moves the user's rows with the given ids to another category, in one
+     * database transaction. Rows whose type differs from the category's are
+     * left alone. Returns the number of rows moved.
+     */
+    public int recategorizeTransactions(int userId, int[] transactionIds, int categoryId) {
+        String sql = "UPDATE " + TABLE_TRANSACTIONS + " SET " + COLUMN_CATEGORY_ID + " = ?" +
+                " WHERE " + COLUMN_USER_ID + " = ?" +
+                " AND " + COLUMN_TYPE + " = (SELECT " + COLUMN_TYPE + " FROM " + TABLE_CATEGORIES +
+                " WHERE " + COLUMN_CATEGORY_ID + " = ?)" +
+                " AND " + COLUMN_TRANSACTION_ID + " IN (";
+        int updated = executeForIds(sql, new long[]{categoryId, userId, categoryId}, transactionIds);
+        if (updated > 0) {
+            invalidationTracker.notifyChanged(userId, InvalidationTracker.ALL_ROWS);
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes every row that passes the filter, whether or not a screen has
+     * loaded it, in a single statement. Returns the number of rows deleted.
+     */
+    public int deleteTransactions(TransactionFilter filter) {
+        List<String> args = new ArrayList<>();
+        String sql = "DELETE FROM " + TABLE_TRANSACTIONS +
+                " WHERE " + COLUMN_TRANSACTION_ID + " IN (" + selectFilteredIds(filter, args) + ")";
+        return executeForFilter(filter.getUserId(), sql, args);
+    }
+
+    /**
+     * Moves every row that passes the filter to another category, in a single
+     * statement. Rows whose type differs from the category's are left alone.
+     * Returns the number of rows moved.
+     */
+    public int recategorizeTransactions(TransactionFilter filter, int categoryId) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(categoryId));
+        args.add(String.valueOf(categoryId));
+        String sql = "UPDATE " + TABLE_TRANSACTIONS + " SET " + COLUMN_CATEGORY_ID + " = ?" +
+                " WHERE " + COLUMN_TYPE + " = (SELECT " + COLUMN_TYPE + " FROM " + TABLE_CATEGORIES +
+                " WHERE " + COLUMN_CATEGORY_ID + " = ?)" +
+                " AND " + COLUMN_TRANSACTION_ID + " IN (" + selectFilteredIds(filter, args) + ")";
+        return executeForFilter(filter.getUserId(), sql, args);
+    }
+
+    // Ids of the rows that pass the filter, for an IN (...) subquery
+    private static String selectFilteredIds(TransactionFilter filter, List<String> args) {
+        StringBuilder query = new StringBuilder("SELECT t." + COLUMN_TRANSACTION_ID +
+                " FROM " + TABLE_TRANSACTIONS + " t WHERE ");
+        filter.appendWhere(query, args);
+        return query.toString();
+    }
+
+    private int executeForFilter(int userId, String sql, List<String> args) {
+        SQLiteStatement statement = this.getWritableDatabase().compileStatement(sql);
+        int changed;
+        try {
+            statement.bindAllArgsAsStrings(args.toArray(new String[0]));
+            changed = statement.executeUpdateDelete();
+        } finally {
+            statement.close();
+        }
+        // One statement is one transaction, so the rows are committed by now
+        if (changed > 0) {
+            invalidationTracker.notifyChanged(userId, InvalidationTracker.ALL_ROWS);
+        }
+        return changed;
+    }
+
+    // Runs sqlPrefix + "?, ?, ...)" over the ids, a chunk at a time, all in one transaction
+    private int executeForIds(String sqlPrefix, long[] leadingArgs, int[] ids) {
+        if (ids.length == 0) return 0;
+
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement statement = null;
+        int statementSize = -1;
+        int changed = 0;
+        db.beginTransaction();
+        try {
+            for (int start = 0; start < ids.length; start += MAX_IDS_PER_STATEMENT) {
+                int count = Math.min(MAX_IDS_PER_STATEMENT, ids.length - start);
+                if (count != statementSize) {
+                    // Only the last chunk is shorter, so at most two statements are compiled
+                    if (statement != null) statement.close();
+                    StringBuilder sql = new StringBuilder(sqlPrefix);
+                    for (int i = 0; i < count; i++) {
+                        sql.append(i == 0 ? "?" : ", ?");
+                    }
+                    statement = db.compileStatement(sql.append(')').toString());
+                    statementSize = count;
+                }
+                for (int i = 0; i < leadingArgs.length; i++) {
+                    statement.bindLong(i + 1, leadingArgs[i]);
+                }
+                for (int i = 0; i < count; i++) {
+                    statement.bindLong(leadingArgs.length + i + 1, ids[start + i]);
+                }
+                changed += statement.executeUpdateDelete();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            if (statement != null) statement.close();
+        }
+        return changed;
+    }
+
+    // Returns -1 if there is no such transaction
+    private int getTransactionUserId(int transactionId) {
+        SQLiteStatement statement = statementCache.get(getReadableDatabase(), SQL_USER_OF_TRANSACTION);
+        synchronized (statement) {
+            statement.bindLong(1, transactionId);
+            try {
+                return (int) statement.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                return -1;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    // Returns -1 if the category could not be inserted (including when it already exists)
+    public long addCategory(String name, String type) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(COLUMN_CATEGORY_NAME, name);
+        values.put(COLUMN_TYPE, type);
+
+        long categoryId = db.insertWithOnConflict(TABLE_CATEGORIES, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+        if (categoryId != -1) {
+            categoryCache.put(categoryKey(name, type), (int) categoryId);
+        }
+        return categoryId;
+    }
+
+    /**
+     * Id of the category with this name (any case) and type, creating it if
+     * needed. Served from an in-memory map after the first call; the unique
+     * index makes concurrent creators settle on the same row.
+     */
+    public int getOrCreateCategory(String name, String type) {
+        warmCategoryCache();
+        String key = categoryKey(name, type);
+        Integer categoryId = categoryCache.get(key);
+        if (categoryId != null) {
+            return categoryId;
+        }
+
+        long newCategoryId = addCategory(name, type);
+        if (newCategoryId == -1) {
+            // Someone else created it first
+            newCategoryId = findCategoryId(name, type);
+            if (newCategoryId == -1) {
+                throw new RuntimeException("Failed to create category");
+            }
+            categoryCache.put(key, (int) newCategoryId);
+        }
+        return (int) newCategoryId;
+    }
+
+    private long findCategoryId(String name, String type) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT " + COLUMN_CATEGORY_ID + " FROM " + TABLE_CATEGORIES +
+                " WHERE " + COLUMN_CATEGORY_NAME + " = ? COLLATE NOCASE AND " + COLUMN_TYPE + " = ?";
+
+        Cursor cursor = db.rawQuery(query, new String[]{name, type});
+        long categoryId = -1;
+        if (cursor.moveToFirst()) {
+            categoryId = cursor.getLong(0);
+        }
+        cursor.close();
+        return categoryId;
+    }
+
+    // Loads every category into the cache once per process
+    private void warmCategoryCache() {
+        if (categoryCacheWarm) return;
+        synchronized (categoryCache) {
+            if (categoryCacheWarm) return;
+            Cursor cursor = getAllCategories();
+            int idIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY_ID);
+            int nameIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY_NAME);
+            int typeIndex = cursor.getColumnIndexOrThrow(COLUMN_TYPE);
+            while (cursor.moveToNext()) {
+                categoryCache.putIfAbsent(categoryKey(cursor.getString(nameIndex), cursor.getString(typeIndex)),
+                        cursor.getInt(idIndex));
+            }
+            cursor.close();
+            categoryCacheWarm = true;
+        }
+    }
+
+    // Folds ASCII letters only, like COLLATE NOCASE, so the cache and the unique index agree
+    private static String categoryKey(String name, String type) {
+        StringBuilder key = new StringBuilder(name.length() + 1 + type.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            key.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+        return key.append('\n').append(type).toString();
+    }
+
+    public Cursor getAllCategories() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.query(TABLE_CATEGORIES,
+                null, null, null, null, null,
+                COLUMN_TYPE + ", " + COLUMN_CATEGORY_NAME);
+    }
+
+    // Every category, by type and then name
+    public List<Category> getCategories() {
+        List<Category> categories = new ArrayList<>();
+        Cursor cursor = getAllCategories();
+        try {
+            int idIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY_ID);
+            int nameIndex = cursor.getColumnIndexOrThrow(COLUMN_CATEGORY_NAME);
+            int typeIndex = cursor.getColumnIndexOrThrow(COLUMN_TYPE);
+            while (cursor.moveToNext()) {
+                categories.add(new Category(cursor.getInt(idIndex), cursor.getString(nameIndex),
+                        cursor.getString(typeIndex)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return categories;
+    }
+
+    public Cursor getCategoriesByType(String type) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.query(TABLE_CATEGORIES,
+                null,
+                COLUMN_TYPE + " = ?",
+                new String[]{type},
+                null, null,
+                COLUMN_CATEGORY_NAME);
+    }
+
+    public long getTotalIncomeLast30Days(int userId) {
+        return getTotalSince(userId, "Income", EpochDays.today() - SUMMARY_WINDOW_DAYS);
+    }
+
+    public long getTotalExpenseLast30Days(int userId) {
+        return getTotalSince(userId, "Expense", EpochDays.today() - SUMMARY_WINDOW_DAYS);
+    }
+
+    private long getTotalSince(int userId, String type, int fromEpochDay) {
+        SQLiteStatement statement = statementCache.get(getReadableDatabase(), SQL_TOTAL_FOR_TYPE_SINCE);
+        synchronized (statement) {
+            statement.bindLong(1, userId);
+            statement.bindString(2, type);
+            statement.bindLong(3, fromEpochDay);
+            try {
+                return statement.simpleQueryForLong();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
+
+    public Cursor getLatestTransactions(int userId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return db.rawQuery(SQL_LATEST_TRANSACTIONS, new String[]{String.valueOf(userId), String.valueOf(limit)});
+    }
+
+    // Copies every row of a transactions/categories join into objects and closes the cursor
+    static List<Transaction> readTransactions(Cursor cursor) {
+        List<Transaction> transactions = new ArrayList<>(cursor.getCount());
+        try {
+            TransactionRowMapper mapper = new TransactionRowMapper(cursor);
+            while (cursor.moveToNext()) {
+                transactions.add(mapper.read());
+            }
+        } finally {
+            cursor.close();
+        }
+        return transactions;
+    }
+}
\ No newline at end of file
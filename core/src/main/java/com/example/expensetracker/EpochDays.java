@@ -0,0 +1,139 @@
+package com.example.expensetracker;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Conversions for transaction dates, which are stored as whole days since
+ * 1970-01-01 (epoch days). Plain integer math, since java.time is not
+ * available at minSdk 24.
+ */
+public final class EpochDays {
+
+    // Recently shown dates; rows cluster on a few days so nearly every lookup hits
+    private static final int DISPLAY_CACHE_SIZE = 1024; // power of two
+    private static final Label[] DISPLAY_CACHE = new Label[DISPLAY_CACHE_SIZE];
+
+    private static final class Label {
+        final int epochDay;
+        final Locale locale;
+        final String text;
+
+        Label(int epochDay, Locale locale, String text) {
+            this.epochDay = epochDay;
+            this.locale = locale;
+            this.text = text;
+        }
+    }
+
+    private EpochDays() {
+    }
+
+    // Epoch day of a calendar date (month 1-12)
+    public static int of(int year, int month, int day) {
+        // Days-from-civil over 400-year eras, with March as the first month
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    // Today in the device's time zone
+    public static int today() {
+        Calendar calendar = Calendar.getInstance();
+        return of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Parses a "yyyy-MM-dd" date.
+     *
+     * @throws IllegalArgumentException if the text is not a valid date in that form
+     */
+    public static int parseIsoDate(String date) {
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            throw new IllegalArgumentException("Not a yyyy-MM-dd date: " + date);
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            throw new IllegalArgumentException("Not a valid date: " + date);
+        }
+        return of(year, month, day);
+    }
+
+    // "yyyy-MM-dd", as used by import and export files
+    public static String toIsoDate(int epochDay) {
+        int[] date = toCivil(epochDay);
+        StringBuilder text = new StringBuilder(10);
+        appendPadded(text, date[0], 4).append('-');
+        appendPadded(text, date[1], 2).append('-');
+        return appendPadded(text, date[2], 2).toString();
+    }
+
+    // Short numeric label for list rows in the device locale, cached per day
+    public static String toDisplay(int epochDay) {
+        Locale locale = Locale.getDefault();
+        int slot = epochDay & (DISPLAY_CACHE_SIZE - 1);
+        Label label = DISPLAY_CACHE[slot];
+        if (label != null && label.epochDay == epochDay && label.locale.equals(locale)) {
+            return label.text;
+        }
+
+        label = new Label(epochDay, locale, Formatters.formatShortDate(epochDay));
+        DISPLAY_CACHE[slot] = label;
+        return label.text;
+    }
+
+    // {year, month (1-12), day} of an epoch day
+    static int[] toCivil(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return new int[]{year, month, day};
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Not a yyyy-MM-dd date: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static StringBuilder appendPadded(StringBuilder text, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            text.append('0');
+        }
+        return text.append(digits);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.expensetracker;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Amount and date text in the device's locale, shared by every screen.
+ * NumberFormat and SimpleDateFormat are slow to build and not thread-safe,
+ * so amounts go through one immutable {@link AmountFormatter} and dates
+ * through one DateFormat per thread. Both are rebuilt when the locale changes.
+ */
+public final class Formatters {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static volatile AmountFormatter amounts;
+
+    private static final ThreadLocal<DateFormats> DATE_FORMATS = new ThreadLocal<>();
+
+    private static final class DateFormats {
+        final Locale locale;
+        final DateFormat shortDate;
+        final DateFormat longDate;
+
+        DateFormats(Locale locale) {
+            this.locale = locale;
+            shortDate = DateFormat.getDateInstance(DateFormat.SHORT, locale);
+            longDate = DateFormat.getDateInstance(DateFormat.FULL, locale);
+            // Epoch days are calendar dates, so no zone may shift them
+            TimeZone utc = TimeZone.getTimeZone("UTC");
+            shortDate.setTimeZone(utc);
+            longDate.setTimeZone(utc);
+        }
+    }
+
+    private Formatters() {
+    }
+
+    // Formatter for the device locale's separators and grouping
+    public static AmountFormatter amounts() {
+        Locale locale = Locale.getDefault();
+        AmountFormatter formatter = amounts;
+        if (formatter == null || !formatter.getLocale().equals(locale)) {
+            // A race only builds an extra copy; any of them is correct
+            formatter = new AmountFormatter(locale);
+            amounts = formatter;
+        }
+        return formatter;
+    }
+
+    // e.g. "1,234.56" in the US and "1.234,56" in Germany, with no currency symbol
+    public static String formatAmount(long cents) {
+        return amounts().format(cents);
+    }
+
+    // Numeric date for list rows, e.g. "3/9/25" in the US; EpochDays.toDisplay caches these
+    public static String formatShortDate(int epochDay) {
+        return dateFormats().shortDate.format(new Date(epochDay * MILLIS_PER_DAY));
+    }
+
+    // Date with weekday and month name, e.g. "Sunday, March 9, 2025" in the US
+    public static String formatLongDate(int epochDay) {
+        return dateFormats().longDate.format(new Date(epochDay * MILLIS_PER_DAY));
+    }
+
+    private static DateFormats dateFormats() {
+        Locale locale = Locale.getDefault();
+        DateFormats formats = DATE_FORMATS.get();
+        if (formats == null || !formats.locale.equals(locale)) {
+            formats = new DateFormats(locale);
+            DATE_FORMATS.set(formats);
+        }
+        return formats;
+    }
+}
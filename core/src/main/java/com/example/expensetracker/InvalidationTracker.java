@@ -0,0 +1,49 @@
+package com.example.expensetracker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user change counters for the transactions table. Every write through
+ * {@link DatabaseHelper} bumps the owner's version and tells the registered
+ * observers which row changed, so a screen can skip its reload when nothing
+ * happened, or patch only the rows that did. Writes made with raw SQL, or by
+ * another process, are not seen.
+ */
+public final class InvalidationTracker {
+
+    // Passed instead of a transaction id when many rows changed at once (bulk insert, import, batch edit)
+    public static final int ALL_ROWS = -1;
+
+    public interface Observer {
+        // Called on the thread that made the write, after the row was written
+        void onTransactionsChanged(int userId, long version, int transactionId);
+    }
+
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // 0 until the user's transactions first change in this process
+    public long getVersion(int userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? 0 : version.get();
+    }
+
+    public void addObserver(Observer observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    void notifyChanged(int userId, int transactionId) {
+        long version = versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        for (Observer observer : observers) {
+            observer.onTransactionsChanged(userId, version, transactionId);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.expensetracker;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between user-facing decimal amounts and the whole cents
+ * (minor units) stored in the database. Totals are summed as longs, so
+ * they are exact no matter how many transactions are added up.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as "12.5" or "1234.56" into cents,
+     * rounding half-up past the second decimal place.
+     *
+     * @throws NumberFormatException if the text is not a number or does not fit in a long
+     */
+    public static long parseCents(String amount) {
+        try {
+            return new BigDecimal(amount.trim()).setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + amount);
+        }
+    }
+
+    // Plain "1234.56" form with no currency symbol or grouping, e.g. for export and edit fields;
+    // screens show amounts through Formatters instead
+    public static String format(long cents) {
+        StringBuilder text = new StringBuilder(24);
+        long abs = Math.abs(cents);
+        if (cents < 0) text.append('-');
+        text.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) text.append('0');
+        return text.append(fraction).toString();
+    }
+
+    // Exact decimal value, for NumberFormat and JSON output
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
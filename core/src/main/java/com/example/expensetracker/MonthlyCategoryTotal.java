@@ -0,0 +1,48 @@
+package com.example.expensetracker;
+
+/**
+ * Total in cents of one category's transactions in one month ("yyyy-MM").
+ */
+public class MonthlyCategoryTotal {
+
+    private final String yearMonth;
+    private final int categoryId;
+    private final String categoryName;
+    private final String type;
+    private final long totalCents;
+    private final int transactionCount;
+
+    public MonthlyCategoryTotal(String yearMonth, int categoryId, String categoryName, String type,
+                                long totalCents, int transactionCount) {
+        this.yearMonth = yearMonth;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.totalCents = totalCents;
+        this.transactionCount = transactionCount;
+    }
+
+    public String getYearMonth() {
+        return yearMonth;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+}
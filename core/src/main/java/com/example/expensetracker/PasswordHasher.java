@@ -0,0 +1,169 @@
+package com.example.expensetracker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2 password hashes. Each stored hash carries its own algorithm,
+ * iteration count and salt ({@code pbkdf2_sha256$<iterations>$<salt>$<hash>},
+ * hex encoded), so the cost can change without locking anyone out.
+ * Hashing is slow on purpose; never call it on the main thread.
+ */
+public final class PasswordHasher {
+
+    // Starting cost; PasswordCostCalibration reports what fits the login budget on a device
+    public static final int DEFAULT_ITERATIONS = 100_000;
+
+    private static final String PREFIX = "pbkdf2_";
+    private static final String SHA256 = "sha256";
+    private static final String SHA1 = "sha1";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final String algorithm;
+
+    public PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive: " + iterations);
+        }
+        this.iterations = iterations;
+        this.algorithm = isAvailable(SHA256) ? SHA256 : SHA1; // HmacSHA256 needs API 26
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(algorithm, password, salt, iterations, HASH_BYTES);
+        return PREFIX + algorithm + '$' + iterations + '$' + toHex(salt) + '$' + toHex(hash);
+    }
+
+    /**
+     * Checks a password against a stored value, which is either one of our
+     * hashes or a plaintext password saved before hashing was introduced.
+     * Anything that does not parse as a complete hash is treated as plaintext.
+     */
+    public boolean verify(String password, String stored) {
+        ParsedHash parsed = ParsedHash.parse(stored);
+        if (parsed == null) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] actual = pbkdf2(parsed.algorithm, password, parsed.salt, parsed.iterations, parsed.hash.length);
+        return MessageDigest.isEqual(actual, parsed.hash);
+    }
+
+    // True for plaintext, and for hashes made with another algorithm or cost
+    public boolean needsRehash(String stored) {
+        ParsedHash parsed = ParsedHash.parse(stored);
+        return parsed == null || !parsed.algorithm.equals(algorithm) || parsed.iterations != iterations;
+    }
+
+    static boolean isHash(String stored) {
+        return ParsedHash.parse(stored) != null;
+    }
+
+    // A stored value split into its parts; only built when every part is well formed
+    private static final class ParsedHash {
+        final String algorithm;
+        final int iterations;
+        final byte[] salt;
+        final byte[] hash;
+
+        private ParsedHash(String algorithm, int iterations, byte[] salt, byte[] hash) {
+            this.algorithm = algorithm;
+            this.iterations = iterations;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        static ParsedHash parse(String stored) {
+            if (!stored.startsWith(PREFIX)) return null;
+            String[] parts = stored.split("\\$", -1);
+            if (parts.length != 4) return null;
+            String algorithm = parts[0].substring(PREFIX.length());
+            if (!algorithm.equals(SHA256) && !algorithm.equals(SHA1)) return null;
+            try {
+                int iterations = Integer.parseInt(parts[1]);
+                byte[] salt = fromHex(parts[2]);
+                byte[] hash = fromHex(parts[3]);
+                if (iterations < 1 || salt.length == 0 || hash.length == 0) return null;
+                return new ParsedHash(algorithm, iterations, salt, hash);
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException included
+                return null;
+            }
+        }
+    }
+
+    private static byte[] pbkdf2(String algorithm, String password, byte[] salt, int iterations, int bytes) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, bytes * 8);
+        try {
+            return SecretKeyFactory.getInstance(jcaName(algorithm)).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 with " + algorithm + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static boolean isAvailable(String algorithm) {
+        try {
+            SecretKeyFactory.getInstance(jcaName(algorithm));
+            return true;
+        } catch (NoSuchAlgorithmException e) {
+            return false;
+        }
+    }
+
+    private static String jcaName(String algorithm) {
+        switch (algorithm) {
+            case SHA256:
+                return "PBKDF2WithHmacSHA256";
+            case SHA1:
+                return "PBKDF2WithHmacSHA1";
+            default:
+                throw new IllegalArgumentException("Unknown hash algorithm: " + algorithm);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Odd-length hex: " + hex);
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Not hex: " + hex);
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.expensetracker;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled statements kept for the lifetime of one open database, keyed by
+ * their SQL text. A SQLiteStatement holds its bindings, so callers must
+ * synchronize on the returned statement while binding and executing it.
+ */
+final class StatementCache {
+
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+    // Database the cached statements were compiled against
+    private SQLiteDatabase database;
+
+    // Returns the statement for sql, compiling it on first use
+    synchronized SQLiteStatement get(SQLiteDatabase db, String sql) {
+        if (db != database) {
+            // The helper reopened its database; statements of the old one are unusable
+            clear();
+            database = db;
+        }
+        SQLiteStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = db.compileStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    synchronized void clear() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+        statements.clear();
+        database = null;
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+}
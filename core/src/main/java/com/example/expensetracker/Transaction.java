@@ -0,0 +1,67 @@
+package com.example.expensetracker;
+
+/**
+ * A single transaction row joined with its category name. Amounts are in
+ * cents (minor units, see {@link Money}) and dates in epoch days (see
+ * {@link EpochDays}).
+ */
+public class Transaction {
+
+    private final int id;
+    private final int userId;
+    private final int categoryId;
+    private final String type;
+    private final String categoryName;
+    private final String description;
+    private final long amountCents;
+    private final int epochDay;
+
+    public Transaction(int id, int userId, int categoryId, String type, String categoryName,
+                       String description, long amountCents, int epochDay) {
+        this.id = id;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.type = type;
+        this.categoryName = categoryName;
+        this.description = description;
+        this.amountCents = amountCents;
+        this.epochDay = epochDay;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    // Copy of this row filed under another category
+    public Transaction withCategory(int newCategoryId, String newCategoryName) {
+        return new Transaction(id, userId, newCategoryId, type, newCategoryName, description, amountCents, epochDay);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.expensetracker;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.expensetracker.core.R;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transaction table rows for the report and modify screens. Only the rows on
+ * screen have views; the rest are plain {@link Transaction} objects.
+ */
+public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.ViewHolder> {
+
+    public interface OnTransactionClickListener {
+        void onTransactionClick(Transaction transaction);
+    }
+
+    // Description chars shown before it is cut off with "..."
+    private static final int DESCRIPTION_PREVIEW = 10;
+
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final int evenRowColor;
+    private final int oddRowColor;
+    private final int selectedRowColor;
+    private OnTransactionClickListener clickListener;
+    private final Set<Integer> selectedIds = new HashSet<>();
+    // Every row counts as selected, including pages not loaded yet
+    private boolean allSelected;
+
+    public TransactionAdapter(Context context) {
+        evenRowColor = ContextCompat.getColor(context, android.R.color.white);
+        oddRowColor = ContextCompat.getColor(context, R.color.light_gray);
+        selectedRowColor = ContextCompat.getColor(context, R.color.selected_color);
+        setHasStableIds(true);
+    }
+
+    // The rows loaded so far, in display order
+    public List<Transaction> getTransactions() {
+        return Collections.unmodifiableList(transactions);
+    }
+
+    public void setOnTransactionClickListener(OnTransactionClickListener clickListener) {
+        this.clickListener = clickListener;
+    }
+
+    public void setTransactions(List<Transaction> newTransactions) {
+        transactions.clear();
+        transactions.addAll(newTransactions);
+        notifyDataSetChanged();
+    }
+
+    public void appendTransactions(List<Transaction> page) {
+        int start = transactions.size();
+        transactions.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
+    // No-op if the row is not loaded
+    public void removeTransaction(int transactionId) {
+        int position = positionOf(transactionId);
+        if (position == -1) return;
+        transactions.remove(position);
+        notifyItemRemoved(position);
+        // Rows below moved up a line, so their stripe color flips
+        notifyItemRangeChanged(position, transactions.size() - position);
+    }
+
+    // Drops every loaded row with one of the ids in a single pass
+    public void removeTransactions(Collection<Integer> transactionIds) {
+        if (transactionIds.isEmpty()) return;
+        Set<Integer> ids = new HashSet<>(transactionIds);
+        List<Integer> removedPositions = new ArrayList<>();
+        List<Transaction> kept = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            if (ids.contains(transactions.get(i).getId())) {
+                removedPositions.add(i);
+            } else {
+                kept.add(transactions.get(i));
+            }
+        }
+        if (removedPositions.isEmpty()) return;
+
+        transactions.clear();
+        transactions.addAll(kept);
+        // Highest position first, so the positions still to report stay valid
+        for (int i = removedPositions.size() - 1; i >= 0; i--) {
+            notifyItemRemoved(removedPositions.get(i));
+        }
+        int first = removedPositions.get(0);
+        notifyItemRangeChanged(first, transactions.size() - first);
+    }
+
+    // Shows the loaded rows with one of the ids under another category
+    public void recategorizeTransactions(Collection<Integer> transactionIds, Category category) {
+        Set<Integer> ids = new HashSet<>(transactionIds);
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            if (ids.contains(transaction.getId())) {
+                transactions.set(i, transaction.withCategory(category.getId(), category.getName()));
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    // Puts the row where it belongs in the newest-first order (date, then id)
+    public void insertTransaction(Transaction transaction) {
+        int position = 0;
+        while (position < transactions.size() && isNewer(transactions.get(position), transaction)) {
+            position++;
+        }
+        transactions.add(position, transaction);
+        notifyItemInserted(position);
+        notifyItemRangeChanged(position + 1, transactions.size() - position - 1);
+    }
+
+    private static boolean isNewer(Transaction a, Transaction b) {
+        return a.getEpochDay() > b.getEpochDay() || (a.getEpochDay() == b.getEpochDay() && a.getId() > b.getId());
+    }
+
+    public void setSelected(int transactionId, boolean selected) {
+        boolean changed = selected ? selectedIds.add(transactionId) : selectedIds.remove(transactionId);
+        int position = positionOf(transactionId);
+        if (changed && position != -1) {
+            notifyItemChanged(position);
+        }
+    }
+
+    // Selects every loaded row
+    public void selectAll() {
+        for (Transaction transaction : transactions) {
+            selectedIds.add(transaction.getId());
+        }
+        notifyItemRangeChanged(0, transactions.size());
+    }
+
+    // Highlights every row, loaded now or paged in later
+    public void setAllSelected(boolean allSelected) {
+        if (this.allSelected == allSelected) return;
+        this.allSelected = allSelected;
+        notifyItemRangeChanged(0, transactions.size());
+    }
+
+    public void clearSelection() {
+        setAllSelected(false);
+        for (int transactionId : selectedIds) {
+            int position = positionOf(transactionId);
+            if (position != -1) {
+                notifyItemChanged(position);
+            }
+        }
+        selectedIds.clear();
+    }
+
+    private int positionOf(int transactionId) {
+        if (transactionId == -1) return -1;
+        for (int i = 0; i < transactions.size(); i++) {
+            if (transactions.get(i).getId() == transactionId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getItemCount() {
+        return transactions.size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return transactions.get(position).getId();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_transaction, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        // Set once per view rather than once per bind
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (clickListener != null && position != RecyclerView.NO_POSITION) {
+                clickListener.onTransactionClick(transactions.get(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Transaction transaction = transactions.get(position);
+        String description = transaction.getDescription();
+
+        holder.tvType.setText(transaction.getType());
+        holder.tvCategory.setText(transaction.getCategoryName());
+        // Long descriptions and amounts are written into the holder's own buffers, not new Strings
+        if (description != null && description.length() > DESCRIPTION_PREVIEW) {
+            description.getChars(0, DESCRIPTION_PREVIEW, holder.descriptionText, 0);
+            holder.tvDescription.setText(holder.descriptionText, 0, holder.descriptionText.length);
+        } else {
+            holder.tvDescription.setText(description);
+        }
+        holder.tvDate.setText(EpochDays.toDisplay(transaction.getEpochDay()));
+        AmountFormatter amounts = Formatters.amounts();
+        if (holder.amountText.length < amounts.getMaxLength()) {
+            holder.amountText = new char[amounts.getMaxLength()]; // a locale with a longer minus sign
+        }
+        int amountEnd = amounts.formatInto(transaction.getAmountCents(), holder.amountText, 0);
+        holder.tvAmount.setText(holder.amountText, 0, amountEnd);
+
+        // Alternating row colors, selected rows highlighted
+        if (allSelected || selectedIds.contains(transaction.getId())) {
+            holder.itemView.setBackgroundColor(selectedRowColor);
+        } else {
+            holder.itemView.setBackgroundColor(position % 2 == 0 ? evenRowColor : oddRowColor);
+        }
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvType, tvCategory, tvDescription, tvDate, tvAmount;
+        // The TextViews keep pointing at these, so each holder needs its own
+        final char[] descriptionText = new char[DESCRIPTION_PREVIEW + 3];
+        char[] amountText = new char[Formatters.amounts().getMaxLength()];
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            tvType = itemView.findViewById(R.id.tvType);
+            tvCategory = itemView.findViewById(R.id.tvCategory);
+            tvDescription = itemView.findViewById(R.id.tvDescription);
+            tvDate = itemView.findViewById(R.id.tvDate);
+            tvAmount = itemView.findViewById(R.id.tvAmount);
+            descriptionText[DESCRIPTION_PREVIEW] = '.';
+            descriptionText[DESCRIPTION_PREVIEW + 1] = '.';
+            descriptionText[DESCRIPTION_PREVIEW + 2] = '.';
+        }
+    }
+}
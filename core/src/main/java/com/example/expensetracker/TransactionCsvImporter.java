@@ -0,0 +1,136 @@
+package com.example.expensetracker;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a CSV file of transactions into the database for one user.
+ *
+ * <p>Expected columns: {@code date,type,category,description,amount}, with the
+ * date as yyyy-MM-dd and the type Income or Expense. A header row is optional.
+ * Fields may be double-quoted ("" for a literal quote). Only one batch of rows
+ * is held in memory at a time; malformed lines are skipped.
+ */
+public class TransactionCsvImporter {
+
+    private static final String TAG = "TransactionCsvImporter";
+
+    private final DatabaseHelper databaseHelper;
+    private final int batchSize;
+    private int skippedLines;
+
+    public TransactionCsvImporter(DatabaseHelper databaseHelper) {
+        this(databaseHelper, DatabaseHelper.DEFAULT_BATCH_SIZE);
+    }
+
+    public TransactionCsvImporter(DatabaseHelper databaseHelper, int batchSize) {
+        this.databaseHelper = databaseHelper;
+        this.batchSize = batchSize;
+    }
+
+    // Returns the number of transactions imported
+    public int importCsv(int userId, Reader source) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader
+                ? (BufferedReader) source : new BufferedReader(source);
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+        int lineNumber = 0;
+        skippedLines = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) continue;
+
+            List<String> fields = parseLine(line);
+            if (lineNumber == 1 && fields.get(0).trim().equalsIgnoreCase("date")) continue; // header
+
+            Transaction transaction = toTransaction(userId, fields);
+            if (transaction == null) {
+                skippedLines++;
+                Log.w(TAG, "Skipping malformed line " + lineNumber);
+                continue;
+            }
+
+            batch.add(transaction);
+            if (batch.size() == batchSize) {
+                imported += databaseHelper.bulkInsertTransactions(batch, batchSize);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += databaseHelper.bulkInsertTransactions(batch, batchSize);
+        }
+        return imported;
+    }
+
+    // Lines skipped by the last importCsv call
+    public int getSkippedLines() {
+        return skippedLines;
+    }
+
+    private Transaction toTransaction(int userId, List<String> fields) {
+        if (fields.size() != 5) return null;
+
+        String type = normalizeType(fields.get(1).trim());
+        String categoryName = fields.get(2).trim();
+        String description = fields.get(3).trim();
+        int epochDay;
+        long amountCents;
+        try {
+            epochDay = EpochDays.parseIsoDate(fields.get(0).trim());
+            amountCents = Money.parseCents(fields.get(4));
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            return null;
+        }
+
+        if (type == null || categoryName.isEmpty() || amountCents <= 0) {
+            return null;
+        }
+
+        int categoryId = databaseHelper.getOrCreateCategory(categoryName, type);
+        return new Transaction(-1, userId, categoryId, type, categoryName, description, amountCents, epochDay);
+    }
+
+    private static String normalizeType(String type) {
+        if (type.equalsIgnoreCase("Income")) return "Income";
+        if (type.equalsIgnoreCase("Expense")) return "Expense";
+        return null;
+    }
+
+    // Splits one CSV line, honouring double-quoted fields
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.expensetracker;
+
+import android.util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes a user's transactions, newest first, as CSV or JSON.
+ *
+ * <p>Rows are read in fixed-size keyset pages and written straight to the
+ * output, so memory use does not grow with the size of the history. The CSV
+ * layout is the one {@link TransactionCsvImporter} reads back.
+ */
+public class TransactionExporter {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    static final String CSV_HEADER = "date,type,category,description,amount";
+
+    private final DatabaseHelper databaseHelper;
+    private final int chunkSize;
+
+    public TransactionExporter(DatabaseHelper databaseHelper) {
+        this(databaseHelper, DatabaseHelper.DEFAULT_BATCH_SIZE);
+    }
+
+    public TransactionExporter(DatabaseHelper databaseHelper, int chunkSize) {
+        this.databaseHelper = databaseHelper;
+        this.chunkSize = chunkSize;
+    }
+
+    // Returns the number of transactions written; the writer is flushed but not closed
+    public int export(int userId, Writer out, Format format) throws IOException {
+        return format == Format.JSON ? exportJson(userId, out) : exportCsv(userId, out);
+    }
+
+    private int exportCsv(int userId, Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+
+        int written = forEachTransaction(userId, transaction -> {
+            out.write(EpochDays.toIsoDate(transaction.getEpochDay()));
+            out.write(',');
+            out.write(transaction.getType());
+            out.write(',');
+            writeCsvField(out, transaction.getCategoryName());
+            out.write(',');
+            writeCsvField(out, transaction.getDescription());
+            out.write(',');
+            out.write(Money.format(transaction.getAmountCents()));
+            out.write('\n');
+        });
+
+        out.flush();
+        return written;
+    }
+
+    private int exportJson(int userId, Writer out) throws IOException {
+        // Not closed: that would close the caller's writer
+        JsonWriter json = new JsonWriter(out);
+        json.beginArray();
+
+        int written = forEachTransaction(userId, transaction -> {
+            json.beginObject();
+            json.name("id").value(transaction.getId());
+            json.name("date").value(EpochDays.toIsoDate(transaction.getEpochDay()));
+            json.name("type").value(transaction.getType());
+            json.name("category").value(transaction.getCategoryName());
+            json.name("description").value(transaction.getDescription());
+            json.name("amount").value(Money.toDecimal(transaction.getAmountCents()));
+            json.endObject();
+        });
+
+        json.endArray();
+        json.flush();
+        return written;
+    }
+
+    private interface RowWriter {
+        void write(Transaction transaction) throws IOException;
+    }
+
+    // Walks the user's history one keyset page at a time
+    private int forEachTransaction(int userId, RowWriter rowWriter) throws IOException {
+        int count = 0;
+        int lastEpochDay = 0;
+        int lastId = -1;
+        List<Transaction> page;
+        do {
+            page = databaseHelper.getTransactionsPage(userId, lastEpochDay, lastId, chunkSize);
+            for (Transaction transaction : page) {
+                rowWriter.write(transaction);
+            }
+            count += page.size();
+            if (!page.isEmpty()) {
+                Transaction last = page.get(page.size() - 1);
+                lastEpochDay = last.getEpochDay();
+                lastId = last.getId();
+            }
+        } while (page.size() == chunkSize);
+        return count;
+    }
+
+    // Quotes a field only when it contains a comma, quote or line break
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) return;
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // Line breaks would split the row for a line-based reader
+            if (c == '\n' || c == '\r') {
+                out.write(' ');
+            } else {
+                if (c == '"') out.write('"');
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.expensetracker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Which of a user's transactions a list or total covers: an optional date
+ * range, type, set of categories and amount range, all inclusive. Compiles
+ * to a WHERE clause over the transactions table (alias {@code t}) with every
+ * value bound as an argument; user_id and date lead, so SQLite can seek
+ * idx_transactions_user_date and check the rest on each row it reads.
+ */
+public final class TransactionFilter {
+
+    private final int userId;
+    private final Integer fromEpochDay;
+    private final Integer toEpochDay;
+    private final String type;
+    private final Set<Integer> categoryIds;
+    private final Long minAmountCents;
+    private final Long maxAmountCents;
+
+    private TransactionFilter(Builder builder) {
+        userId = builder.userId;
+        fromEpochDay = builder.fromEpochDay;
+        toEpochDay = builder.toEpochDay;
+        type = builder.type;
+        categoryIds = Collections.unmodifiableSet(new TreeSet<>(builder.categoryIds));
+        minAmountCents = builder.minAmountCents;
+        maxAmountCents = builder.maxAmountCents;
+    }
+
+    // Every transaction of the user
+    public static TransactionFilter forUser(int userId) {
+        return new Builder(userId).build();
+    }
+
+    public Builder toBuilder() {
+        return new Builder(userId)
+                .setDateRange(fromEpochDay, toEpochDay)
+                .setType(type)
+                .setCategoryIds(categoryIds)
+                .setAmountRange(minAmountCents, maxAmountCents);
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    // Null when the range is open on that side
+    public Integer getFromEpochDay() {
+        return fromEpochDay;
+    }
+
+    public Integer getToEpochDay() {
+        return toEpochDay;
+    }
+
+    // "Income", "Expense", or null for both
+    public String getType() {
+        return type;
+    }
+
+    // Empty for every category
+    public Set<Integer> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public Long getMinAmountCents() {
+        return minAmountCents;
+    }
+
+    public Long getMaxAmountCents() {
+        return maxAmountCents;
+    }
+
+    // True if nothing but the user is filtered on
+    public boolean isUnfiltered() {
+        return fromEpochDay == null && toEpochDay == null && type == null
+                && categoryIds.isEmpty() && minAmountCents == null && maxAmountCents == null;
+    }
+
+    // Appends the conditions, starting with "t.user_id = ?", and their arguments in the same order
+    void appendWhere(StringBuilder sql, List<String> args) {
+        sql.append("t.").append(DatabaseHelper.COLUMN_USER_ID).append(" = ?");
+        args.add(String.valueOf(userId));
+        if (fromEpochDay != null) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_DATE).append(" >= ?");
+            args.add(String.valueOf(fromEpochDay));
+        }
+        if (toEpochDay != null) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_DATE).append(" <= ?");
+            args.add(String.valueOf(toEpochDay));
+        }
+        if (type != null) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_TYPE).append(" = ?");
+            args.add(type);
+        }
+        if (!categoryIds.isEmpty()) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_CATEGORY_ID).append(" IN (");
+            boolean first = true;
+            for (int categoryId : categoryIds) {
+                sql.append(first ? "?" : ", ?");
+                args.add(String.valueOf(categoryId));
+                first = false;
+            }
+            sql.append(')');
+        }
+        if (minAmountCents != null) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_AMOUNT).append(" >= ?");
+            args.add(String.valueOf(minAmountCents));
+        }
+        if (maxAmountCents != null) {
+            sql.append(" AND t.").append(DatabaseHelper.COLUMN_AMOUNT).append(" <= ?");
+            args.add(String.valueOf(maxAmountCents));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionFilter)) return false;
+        TransactionFilter other = (TransactionFilter) o;
+        return userId == other.userId && Objects.equals(fromEpochDay, other.fromEpochDay)
+                && Objects.equals(toEpochDay, other.toEpochDay) && Objects.equals(type, other.type)
+                && categoryIds.equals(other.categoryIds) && Objects.equals(minAmountCents, other.minAmountCents)
+                && Objects.equals(maxAmountCents, other.maxAmountCents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, fromEpochDay, toEpochDay, type, categoryIds,
+                minAmountCents, maxAmountCents);
+    }
+
+    public static final class Builder {
+
+        private final int userId;
+        private Integer fromEpochDay;
+        private Integer toEpochDay;
+        private String type;
+        private final Set<Integer> categoryIds = new TreeSet<>();
+        private Long minAmountCents;
+        private Long maxAmountCents;
+
+        public Builder(int userId) {
+            this.userId = userId;
+        }
+
+        // Either end may be null for an open range
+        public Builder setDateRange(Integer fromEpochDay, Integer toEpochDay) {
+            this.fromEpochDay = fromEpochDay;
+            this.toEpochDay = toEpochDay;
+            return this;
+        }
+
+        public Builder setType(String type) {
+            this.type = type;
+            return this;
+        }
+
+        // Replaces the category set; an empty collection means every category
+        public Builder setCategoryIds(Collection<Integer> categoryIds) {
+            this.categoryIds.clear();
+            this.categoryIds.addAll(categoryIds);
+            return this;
+        }
+
+        public Builder setAmountRange(Long minAmountCents, Long maxAmountCents) {
+            this.minAmountCents = minAmountCents;
+            this.maxAmountCents = maxAmountCents;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if a range ends before it starts
+         */
+        public TransactionFilter build() {
+            if (fromEpochDay != null && toEpochDay != null && fromEpochDay > toEpochDay) {
+                throw new IllegalArgumentException("Date range ends before it starts");
+            }
+            if (minAmountCents != null && maxAmountCents != null && minAmountCents > maxAmountCents) {
+                throw new IllegalArgumentException("Minimum amount is above the maximum");
+            }
+            return new TransactionFilter(this);
+        }
+    }
+}
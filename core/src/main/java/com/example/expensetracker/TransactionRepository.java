@@ -0,0 +1,199 @@
+package com.example.expensetracker;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every DatabaseHelper call on a small background pool and hands the
+ * result back on the main thread. Cursors never leave the worker thread;
+ * rows are copied into {@link Transaction} objects first.
+ */
+public class TransactionRepository {
+
+    private static final String TAG = "TransactionRepository";
+
+    // Returned by registerUser when the username already exists
+    public static final long USERNAME_TAKEN = DatabaseHelper.USERNAME_TAKEN;
+
+    // Bounded pool shared by all screens; SQLite serializes writers anyway
+    private static final int THREAD_COUNT = 2;
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREAD_COUNT);
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+            Log.e(TAG, "Database task failed: " + e.getMessage(), e);
+        }
+    }
+
+    private final DatabaseHelper databaseHelper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public TransactionRepository(DatabaseHelper databaseHelper) {
+        this.databaseHelper = databaseHelper;
+    }
+
+    public InvalidationTracker getInvalidationTracker() {
+        return databaseHelper.getInvalidationTracker();
+    }
+
+    // ---------- Users ----------
+
+    // Delivers null when the credentials do not match
+    public void login(String username, String password, Callback<User> callback) {
+        execute(() -> databaseHelper.authenticate(username, password).orElse(null), callback);
+    }
+
+    public void registerUser(String firstName, String lastName, String username, String password,
+                             Callback<Long> callback) {
+        execute(() -> databaseHelper.registerUser(firstName, lastName, username, password), callback);
+    }
+
+    // ---------- Transactions ----------
+
+    public void getTransactionsPage(int userId, int beforeEpochDay, int beforeId, int pageSize,
+                                    Callback<List<Transaction>> callback) {
+        execute(() -> databaseHelper.getTransactionsPage(userId, beforeEpochDay, beforeId, pageSize), callback);
+    }
+
+    public void getTransactionsPage(TransactionFilter filter, int beforeEpochDay, int beforeId, int pageSize,
+                                    Callback<List<Transaction>> callback) {
+        execute(() -> databaseHelper.getTransactionsPage(filter, beforeEpochDay, beforeId, pageSize), callback);
+    }
+
+    public void getTransactionsInRange(int userId, int fromEpochDay, int toEpochDay,
+                                       Callback<List<Transaction>> callback) {
+        execute(() -> databaseHelper.getTransactionsInRange(userId, fromEpochDay, toEpochDay), callback);
+    }
+
+    public void getLatestTransactions(int userId, int limit, Callback<List<Transaction>> callback) {
+        execute(() -> DatabaseHelper.readTransactions(databaseHelper.getLatestTransactions(userId, limit)), callback);
+    }
+
+    public void getTransactionsByIds(TransactionFilter filter, Collection<Integer> transactionIds,
+                                     Callback<List<Transaction>> callback) {
+        execute(() -> databaseHelper.getTransactionsByIds(filter, transactionIds), callback);
+    }
+
+    public void searchTransactions(int userId, String query, int limit, Callback<List<Transaction>> callback) {
+        execute(() -> databaseHelper.searchTransactions(userId, query, limit), callback);
+    }
+
+    public void getTransactionById(int transactionId, Callback<Transaction> callback) {
+        execute(() -> {
+            List<Transaction> transactions = DatabaseHelper.readTransactions(databaseHelper.getTransactionById(transactionId));
+            return transactions.isEmpty() ? null : transactions.get(0);
+        }, callback);
+    }
+
+    public void getUserBalance(int userId, Callback<UserBalance> callback) {
+        execute(() -> databaseHelper.getUserBalance(userId), callback);
+    }
+
+    public void getMonthlyBreakdown(int userId, String fromMonth, String toMonth,
+                                    Callback<List<MonthlyCategoryTotal>> callback) {
+        execute(() -> databaseHelper.getMonthlyBreakdown(userId, fromMonth, toMonth), callback);
+    }
+
+    // [0] = income, [1] = expense, in cents
+    public void getTotals(TransactionFilter filter, Callback<long[]> callback) {
+        execute(() -> databaseHelper.getTotals(filter), callback);
+    }
+
+    public void getCategories(Callback<List<Category>> callback) {
+        execute(databaseHelper::getCategories, callback);
+    }
+
+    public void getSummary(int userId, int windowDays, Callback<TransactionSummary> callback) {
+        execute(() -> databaseHelper.getSummary(userId, windowDays), callback);
+    }
+
+    public void addTransaction(int userId, String categoryName, String type, String description,
+                               long amountCents, int epochDay, Callback<Long> callback) {
+        execute(() -> {
+            int categoryId = databaseHelper.getOrCreateCategory(categoryName, type);
+            return databaseHelper.addTransaction(userId, categoryId, type, description, amountCents, epochDay);
+        }, callback);
+    }
+
+    public void updateTransaction(int transactionId, String categoryName, String type, String description,
+                                  long amountCents, int epochDay, Callback<Integer> callback) {
+        execute(() -> {
+            int categoryId = databaseHelper.getOrCreateCategory(categoryName, type);
+            return databaseHelper.updateTransaction(transactionId, categoryId, type, description, amountCents, epochDay);
+        }, callback);
+    }
+
+    public void deleteTransaction(int transactionId, Callback<Integer> callback) {
+        execute(() -> databaseHelper.deleteTransaction(transactionId), callback);
+    }
+
+    // Delivers the number of rows deleted
+    public void deleteTransactions(int userId, int[] transactionIds, Callback<Integer> callback) {
+        execute(() -> databaseHelper.deleteTransactions(userId, transactionIds), callback);
+    }
+
+    // Delivers the number of rows moved; rows of the other type stay where they are
+    public void recategorizeTransactions(int userId, int[] transactionIds, int categoryId,
+                                         Callback<Integer> callback) {
+        execute(() -> databaseHelper.recategorizeTransactions(userId, transactionIds, categoryId), callback);
+    }
+
+    // Every row that passes the filter, including those not paged in yet
+    public void deleteTransactions(TransactionFilter filter, Callback<Integer> callback) {
+        execute(() -> databaseHelper.deleteTransactions(filter), callback);
+    }
+
+    public void recategorizeTransactions(TransactionFilter filter, int categoryId, Callback<Integer> callback) {
+        execute(() -> databaseHelper.recategorizeTransactions(filter, categoryId), callback);
+    }
+
+    // ---------- Import / Export ----------
+
+    // Streams a CSV file into the database; the stream is closed when done
+    public void importTransactions(int userId, InputStream input, Callback<Integer> callback) {
+        execute(() -> {
+            try (Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                return new TransactionCsvImporter(databaseHelper).importCsv(userId, reader);
+            }
+        }, callback);
+    }
+
+    // Streams the user's history to the output in chunks; the stream is closed when done
+    public void exportTransactions(int userId, OutputStream output, TransactionExporter.Format format,
+                                   Callback<Integer> callback) {
+        execute(() -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                return new TransactionExporter(databaseHelper).export(userId, writer, format);
+            }
+        }, callback);
+    }
+
+    private <T> void execute(Callable<T> task, Callback<T> callback) {
+        EXECUTOR.execute(() -> {
+            try {
+                T result = task.call();
+                mainHandler.post(() -> callback.onResult(result));
+            } catch (Exception e) {
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+}
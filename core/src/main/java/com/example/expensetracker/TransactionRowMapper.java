@@ -0,0 +1,84 @@
+package com.example.expensetracker;
+
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+import android.util.SparseArray;
+
+/**
+ * Turns rows of a transactions-joined-with-category cursor into
+ * {@link Transaction} objects. Column indices are looked up once per cursor
+ * rather than once per row, the type is matched in a reused buffer instead
+ * of being read as a new String, and each category name is read once per
+ * cursor. What is left per row is the Transaction and its description.
+ */
+final class TransactionRowMapper {
+
+    private static final String INCOME = "Income";
+    private static final String EXPENSE = "Expense";
+
+    private final Cursor cursor;
+    private final int idIndex;
+    private final int userIdIndex;
+    private final int categoryIdIndex;
+    private final int typeIndex;
+    private final int categoryNameIndex;
+    private final int descriptionIndex;
+    private final int amountIndex;
+    private final int dateIndex;
+
+    // Type text of the current row; grows once to the longest type and is reused
+    private final CharArrayBuffer typeBuffer = new CharArrayBuffer(EXPENSE.length());
+    // category_id -> name; one category has one name for the life of the cursor
+    private final SparseArray<String> categoryNames = new SparseArray<>();
+
+    TransactionRowMapper(Cursor cursor) {
+        this.cursor = cursor;
+        idIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TRANSACTION_ID);
+        userIdIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_USER_ID);
+        categoryIdIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_ID);
+        typeIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_TYPE);
+        categoryNameIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_CATEGORY_NAME);
+        descriptionIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DESCRIPTION);
+        amountIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_AMOUNT);
+        dateIndex = cursor.getColumnIndexOrThrow(DatabaseHelper.COLUMN_DATE);
+    }
+
+    // The row the cursor is on
+    Transaction read() {
+        int categoryId = cursor.getInt(categoryIdIndex);
+        return new Transaction(
+                cursor.getInt(idIndex),
+                cursor.getInt(userIdIndex),
+                categoryId,
+                readType(),
+                categoryName(categoryId),
+                cursor.getString(descriptionIndex),
+                cursor.getLong(amountIndex),
+                cursor.getInt(dateIndex));
+    }
+
+    // The shared "Income"/"Expense" constant; a new String only for anything else
+    private String readType() {
+        cursor.copyStringToBuffer(typeIndex, typeBuffer);
+        if (matches(INCOME)) return INCOME;
+        if (matches(EXPENSE)) return EXPENSE;
+        return new String(typeBuffer.data, 0, typeBuffer.sizeCopied);
+    }
+
+    private boolean matches(String text) {
+        if (typeBuffer.sizeCopied != text.length()) return false;
+        for (int i = 0; i < typeBuffer.sizeCopied; i++) {
+            if (typeBuffer.data[i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private String categoryName(int categoryId) {
+        String name = categoryNames.get(categoryId);
+        if (name == null) {
+            name = cursor.getString(categoryNameIndex);
+            categoryNames.put(categoryId, name);
+        }
+        return name;
+    }
+}
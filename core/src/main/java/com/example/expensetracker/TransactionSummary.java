@@ -0,0 +1,48 @@
+package com.example.expensetracker;
+
+/**
+ * Income and expense totals in cents for one user, both over the whole
+ * history and over the most recent {@link #getWindowDays()} days.
+ */
+public class TransactionSummary {
+
+    private final int windowDays;
+    private final long lifetimeIncomeCents;
+    private final long lifetimeExpenseCents;
+    private final long windowIncomeCents;
+    private final long windowExpenseCents;
+
+    public TransactionSummary(int windowDays, long lifetimeIncomeCents, long lifetimeExpenseCents,
+                              long windowIncomeCents, long windowExpenseCents) {
+        this.windowDays = windowDays;
+        this.lifetimeIncomeCents = lifetimeIncomeCents;
+        this.lifetimeExpenseCents = lifetimeExpenseCents;
+        this.windowIncomeCents = windowIncomeCents;
+        this.windowExpenseCents = windowExpenseCents;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public long getLifetimeIncomeCents() {
+        return lifetimeIncomeCents;
+    }
+
+    public long getLifetimeExpenseCents() {
+        return lifetimeExpenseCents;
+    }
+
+    public long getWindowIncomeCents() {
+        return windowIncomeCents;
+    }
+
+    public long getWindowExpenseCents() {
+        return windowExpenseCents;
+    }
+
+    // Wallet balance: lifetime income minus lifetime expense
+    public long getBalanceCents() {
+        return lifetimeIncomeCents - lifetimeExpenseCents;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.expensetracker;
+
+/**
+ * The signed-in user: id plus the name shown on screen.
+ */
+public class User {
+
+    private final int id;
+    private final String username;
+    private final String fullName;
+
+    public User(int id, String username, String fullName) {
+        this.id = id;
+        this.username = username;
+        this.fullName = fullName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.expensetracker;
+
+/**
+ * A user's lifetime income, expense (in cents) and transaction count, as
+ * stored in the user_balances summary table.
+ */
+public class UserBalance {
+
+    private final int userId;
+    private final long incomeCents;
+    private final long expenseCents;
+    private final int transactionCount;
+
+    public UserBalance(int userId, long incomeCents, long expenseCents, int transactionCount) {
+        this.userId = userId;
+        this.incomeCents = incomeCents;
+        this.expenseCents = expenseCents;
+        this.transactionCount = transactionCount;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public long getIncomeCents() {
+        return incomeCents;
+    }
+
+    public long getExpenseCents() {
+        return expenseCents;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    // Wallet balance: income minus expense
+    public long getBalanceCents() {
+        return incomeCents - expenseCents;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * AmountFormatter against a two-decimal NumberFormat for the same locale, and
+ * the shared instances in Formatters.
+ */
+public class AmountFormatterTest {
+
+    private static final long[] AMOUNTS = {
+            0, 5, 99, 150, 250, 1230, 100_000, 123_456_789, -5, -1234, Long.MAX_VALUE, Long.MIN_VALUE + 1
+    };
+
+    @Test
+    public void format_matchesNumberFormat() {
+        // Comma, dot, space and apostrophe grouping, Indian grouping, Arabic digits
+        Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.UK, Locale.JAPAN,
+                new Locale("de", "CH"), new Locale("hi", "IN"), new Locale("ar", "EG")};
+        for (Locale locale : locales) {
+            AmountFormatter formatter = new AmountFormatter(locale);
+            for (long cents : AMOUNTS) {
+                assertEquals(locale + " " + cents, expected(locale, cents), formatter.format(cents));
+            }
+        }
+    }
+
+    @Test
+    public void format_showsNoCurrencySymbol() {
+        assertEquals("1,234.56", new AmountFormatter(Locale.US).format(123_456));
+        assertEquals("-1.234,56", new AmountFormatter(Locale.GERMANY).format(-123_456));
+        // Yen have no minor units, but the app stores cents for every amount
+        assertEquals("1,234.50", new AmountFormatter(Locale.JAPAN).format(123_450));
+    }
+
+    @Test
+    public void formatInto_writesAtOffsetWithinMaxLength() {
+        AmountFormatter formatter = new AmountFormatter(Locale.US);
+        char[] buffer = new char[3 + formatter.getMaxLength()];
+        int end = formatter.formatInto(-123_456, buffer, 3);
+
+        assertEquals("-1,234.56", new String(buffer, 3, end - 3));
+        assertTrue(formatter.format(Long.MIN_VALUE + 1).length() <= formatter.getMaxLength());
+    }
+
+    @Test
+    public void formatters_followDeviceLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            AmountFormatter us = Formatters.amounts();
+            assertSame(us, Formatters.amounts());
+            assertEquals("1,234.56", Formatters.formatAmount(123_456));
+            assertEquals("Sunday, March 9, 2025", Formatters.formatLongDate(EpochDays.of(2025, 3, 9)));
+
+            Locale.setDefault(Locale.GERMANY);
+            assertEquals(Locale.GERMANY, Formatters.amounts().getLocale());
+            assertEquals(expected(Locale.GERMANY, 123_456), Formatters.formatAmount(123_456));
+            assertEquals("09.03.25", Formatters.formatShortDate(EpochDays.of(2025, 3, 9)));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    private static String expected(Locale locale, long cents) {
+        NumberFormat format = NumberFormat.getNumberInstance(locale);
+        format.setMinimumFractionDigits(2);
+        format.setMaximumFractionDigits(2);
+        return format.format(Money.toDecimal(cents));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Calendar conversions for epoch-day dates.
+ */
+public class EpochDaysTest {
+
+    @Test
+    public void of_matchesKnownDays() {
+        assertEquals(0, EpochDays.of(1970, 1, 1));
+        assertEquals(-1, EpochDays.of(1969, 12, 31));
+        assertEquals(11016, EpochDays.of(2000, 2, 29));
+        assertEquals(20148, EpochDays.of(2025, 3, 1));
+    }
+
+    @Test
+    public void isoDate_roundTripsEveryDayAcrossLeapYears() {
+        for (int day = EpochDays.of(1999, 1, 1); day <= EpochDays.of(2101, 12, 31); day++) {
+            assertEquals(day, EpochDays.parseIsoDate(EpochDays.toIsoDate(day)));
+        }
+        assertEquals("2024-02-29", EpochDays.toIsoDate(EpochDays.of(2024, 2, 29)));
+    }
+
+    @Test
+    public void parseIsoDate_rejectsInvalidDates() {
+        for (String date : new String[]{"2025-02-29", "2100-02-29", "2025-13-01", "2025-04-31",
+                "2025-1-01", "2025/01/01", "not-a-date"}) {
+            try {
+                EpochDays.parseIsoDate(date);
+                fail("Accepted " + date);
+            } catch (IllegalArgumentException expected) {
+                // rejected as it should be
+            }
+        }
+    }
+
+    @Test
+    public void toDisplay_followsDeviceLocaleAndIsCached() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.US);
+            int day = EpochDays.of(2025, 3, 9);
+            String label = EpochDays.toDisplay(day);
+
+            assertEquals("3/9/25", label);
+            assertSame(label, EpochDays.toDisplay(day));
+            assertEquals("12/31/05", EpochDays.toDisplay(EpochDays.of(2005, 12, 31)));
+
+            // A cached label from another locale is not reused
+            Locale.setDefault(Locale.GERMANY);
+            assertEquals("09.03.25", EpochDays.toDisplay(day));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+}
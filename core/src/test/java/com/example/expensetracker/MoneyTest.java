@@ -0,0 +1,56 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * Parsing and formatting of cent amounts.
+ */
+public class MoneyTest {
+
+    @Test
+    public void parseCents_handlesWholeAndFractionalAmounts() {
+        assertEquals(1200, Money.parseCents("12"));
+        assertEquals(1250, Money.parseCents("12.5"));
+        assertEquals(1234, Money.parseCents(" 12.34 "));
+        assertEquals(1, Money.parseCents("0.01"));
+        // 0.1 + 0.2 style inputs stay exact
+        assertEquals(30, Money.parseCents("0.30"));
+    }
+
+    @Test
+    public void parseCents_roundsHalfUp() {
+        assertEquals(1235, Money.parseCents("12.345"));
+        assertEquals(1234, Money.parseCents("12.3449"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseCents_rejectsText() {
+        Money.parseCents("twelve");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void parseCents_rejectsOverflow() {
+        Money.parseCents("1e30");
+    }
+
+    @Test
+    public void format_alwaysShowsTwoDecimals() {
+        assertEquals("0.00", Money.format(0));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("12.30", Money.format(1230));
+        assertEquals("-12.34", Money.format(-1234));
+        assertEquals("92233720368547758.07", Money.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void formatAndParse_roundTrip() {
+        for (long cents : new long[]{1, 99, 100, 101, 123456789}) {
+            assertEquals(cents, Money.parseCents(Money.format(cents)));
+        }
+        assertEquals(new BigDecimal("12.34"), Money.toDecimal(1234));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.expensetracker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Salted PBKDF2 hashes, legacy plaintext passwords and cost changes.
+ */
+public class PasswordHasherTest {
+
+    // Far below the production cost so the tests stay fast
+    private final PasswordHasher hasher = new PasswordHasher(1_000);
+
+    @Test
+    public void hash_verifiesOnlyTheSamePassword() {
+        String stored = hasher.hash("correct horse");
+
+        assertTrue(PasswordHasher.isHash(stored));
+        assertFalse(stored.contains("correct horse"));
+        assertTrue(hasher.verify("correct horse", stored));
+        assertFalse(hasher.verify("correct horsE", stored));
+        assertFalse(hasher.verify("", stored));
+    }
+
+    @Test
+    public void hash_usesAFreshSaltEachTime() {
+        assertNotEquals(hasher.hash("secret"), hasher.hash("secret"));
+    }
+
+    @Test
+    public void verify_acceptsLegacyPlaintextAndAsksForRehash() {
+        assertTrue(hasher.verify("secret", "secret"));
+        assertFalse(hasher.verify("other", "secret"));
+        assertTrue(hasher.needsRehash("secret"));
+    }
+
+    @Test
+    public void needsRehash_whenTheCostChanges() {
+        String stored = hasher.hash("secret");
+        PasswordHasher stronger = new PasswordHasher(2_000);
+
+        assertFalse(hasher.needsRehash(stored));
+        assertTrue(stronger.needsRehash(stored));
+        // Older hashes still verify under the new cost
+        assertTrue(stronger.verify("secret", stored));
+    }
+
+    @Test
+    public void verify_rejectsCorruptHashes() {
+        String stored = hasher.hash("secret");
+        String[] parts = stored.split("\\$");
+
+        assertFalse(hasher.verify("secret", parts[0] + "$x$" + parts[2] + "$" + parts[3]));
+        assertFalse(hasher.verify("secret", parts[0] + "$" + parts[1] + "$zz$" + parts[3]));
+        assertFalse(hasher.verify("secret", parts[0] + "$" + parts[1]));
+        assertFalse(hasher.verify(stored, stored));
+    }
+
+    @Test
+    public void verify_treatsHashLookalikesAsPlaintext() {
+        // Legacy passwords that merely start like a hash
+        assertFalse(PasswordHasher.isHash("pbkdf2_secret"));
+        assertTrue(hasher.verify("pbkdf2_secret", "pbkdf2_secret"));
+        assertTrue(hasher.needsRehash("pbkdf2_secret"));
+
+        assertFalse(PasswordHasher.isHash("pbkdf2_md5$1000$00ff$00ff"));
+        assertTrue(hasher.verify("pbkdf2_md5$1000$00ff$00ff", "pbkdf2_md5$1000$00ff$00ff"));
+        assertFalse(PasswordHasher.isHash("pbkdf2_sha256$0$00ff$00ff"));
+        assertFalse(PasswordHasher.isHash("pbkdf2_sha256$1000$$00ff"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+/**
+ * UI steps shared by the macrobenchmarks and the baseline profile
+ * generator, driven through UiAutomator against the installed app.
+ */
+final class AppFlows {
+
+    static final String PACKAGE = "com.example.expensetracker";
+
+    private static final String USERNAME = "macrobench";
+    private static final String PASSWORD = "macrobench";
+    private static final long TIMEOUT_MS = 5_000;
+
+    private AppFlows() {
+    }
+
+    /**
+     * Registers the benchmark account through the sign-up screen and comes
+     * back to the login screen. Does nothing harmful if it already exists.
+     */
+    static void ensureAccount(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE, "textViewSignUp")).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, "etFirstName")), TIMEOUT_MS);
+
+        device.findObject(By.res(PACKAGE, "etFirstName")).setText("Macro");
+        device.findObject(By.res(PACKAGE, "etLastName")).setText("Bench");
+        device.findObject(By.res(PACKAGE, "etUsername")).setText(USERNAME);
+        device.findObject(By.res(PACKAGE, "etPassword")).setText(PASSWORD);
+        device.findObject(By.res(PACKAGE, "etConfirmPassword")).setText(PASSWORD);
+        device.findObject(By.res(PACKAGE, "btnSignUp")).click();
+
+        // A new account goes straight back to login; a taken name stays on sign-up
+        if (!device.wait(Until.hasObject(By.res(PACKAGE, "editTextEmail")), TIMEOUT_MS)) {
+            device.findObject(By.res(PACKAGE, "tvLogin")).click();
+            device.wait(Until.hasObject(By.res(PACKAGE, "editTextEmail")), TIMEOUT_MS);
+        }
+    }
+
+    // On the login screen
+    static void enterCredentials(UiDevice device) {
+        device.wait(Until.hasObject(By.res(PACKAGE, "editTextEmail")), TIMEOUT_MS);
+        device.findObject(By.res(PACKAGE, "editTextEmail")).setText(USERNAME);
+        device.findObject(By.res(PACKAGE, "editTextPassword")).setText(PASSWORD);
+    }
+
+    // Taps login and waits until the dashboard shows its latest transactions
+    static void logIn(UiDevice device) {
+        device.findObject(By.res(PACKAGE, "buttonLogin")).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, "tableTransactions")), TIMEOUT_MS);
+    }
+
+    // From the dashboard: opens the report screen and scrolls its list
+    static void openReport(UiDevice device) {
+        device.findObject(By.res(PACKAGE, "btnReports")).click();
+        device.wait(Until.hasObject(By.res(PACKAGE, "recyclerTransactions")), TIMEOUT_MS);
+        device.findObject(By.res(PACKAGE, "recyclerTransactions")).fling(Direction.DOWN);
+        device.waitForIdle();
+    }
+}
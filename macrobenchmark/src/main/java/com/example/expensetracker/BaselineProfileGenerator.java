@@ -0,0 +1,41 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the baseline profile for the app: startup, login, the dashboard
+ * and the report list. Run with {@code ./gradlew :app:generateBaselineProfile};
+ * the result lands in app/src/release/generated/baselineProfiles.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                AppFlows.PACKAGE,
+                15,
+                3,
+                null,
+                true, // also used as the startup profile for dex layout
+                false,
+                rule -> true,
+                scope -> {
+                    AppFlows.ensureAccount(scope);
+                    AppFlows.enterCredentials(scope.getDevice());
+                    AppFlows.logIn(scope.getDevice());
+                    AppFlows.openReport(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Login to dashboard: from the tap on the login button until the dashboard
+ * reports itself fully drawn (totals and latest transactions on screen).
+ * StartupTimingMetric picks up the in-app launch of DashboardActivity, so
+ * timeToFullDisplayMs is the login-to-dashboard time.
+ */
+@RunWith(Parameterized.class)
+public class LoginBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{{"none"}, {"baselineProfile"}});
+    }
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+    private boolean accountReady;
+
+    public LoginBenchmark(String compilation) {
+        this.compilationMode = StartupBenchmark.compilationMode(compilation);
+    }
+
+    @Test
+    public void loginToDashboard() {
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                null, // not an app start; the app is already showing the login screen
+                ITERATIONS,
+                scope -> {
+                    if (!accountReady) {
+                        AppFlows.ensureAccount(scope);
+                        accountReady = true;
+                    }
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    AppFlows.enterCredentials(scope.getDevice());
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    AppFlows.logIn(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
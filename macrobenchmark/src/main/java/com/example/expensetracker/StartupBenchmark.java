@@ -0,0 +1,75 @@
+package com.example.expensetracker;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Cold and warm start of the login screen, without ahead-of-time
+ * compilation and with the baseline profile applied.
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Parameterized.Parameters(name = "{0},{1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {StartupMode.COLD, "none"},
+                {StartupMode.COLD, "baselineProfile"},
+                {StartupMode.WARM, "none"},
+                {StartupMode.WARM, "baselineProfile"},
+        });
+    }
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+
+    public StartupBenchmark(StartupMode startupMode, String compilation) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode(compilation);
+    }
+
+    @Test
+    public void startup() {
+        benchmarkRule.measureRepeated(
+                AppFlows.PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    static CompilationMode compilationMode(String name) {
+        if ("baselineProfile".equals(name)) {
+            // Fails instead of silently measuring without a profile
+            return new CompilationMode.Partial(BaselineProfileMode.Require, 0);
+        }
+        return new CompilationMode.None();
+    }
+}